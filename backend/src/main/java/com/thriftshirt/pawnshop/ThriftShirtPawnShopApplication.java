@@ -2,8 +2,10 @@ package com.thriftshirt.pawnshop;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ThriftShirtPawnShopApplication {
     public static void main(String[] args) {
         SpringApplication.run(ThriftShirtPawnShopApplication.class, args);
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.thriftshirt.pawnshop.dto.response.ApiResponse;
 import com.thriftshirt.pawnshop.exception.BadRequestException;
+import com.thriftshirt.pawnshop.exception.ConflictException;
 import com.thriftshirt.pawnshop.exception.ResourceNotFoundException;
 
 @RestControllerAdvice
@@ -38,6 +39,13 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiResponse> handleConflictException(ConflictException ex) {
+        logger.warn("Conflicting update: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ApiResponse> handleBadCredentialsException(BadCredentialsException ex) {
         logger.error("Invalid credentials exception: ", ex);
@@ -0,0 +1,90 @@
+package com.thriftshirt.pawnshop.config;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+/**
+ * Serves stored images under /uploads. Every file there is immutable (photo store
+ * names are content hashes, legacy uploads are UUIDs), so responses carry a
+ * year-long immutable Cache-Control plus a strong ETag and Last-Modified for
+ * revalidation, and large files go out through sendfile.
+ */
+@Configuration
+public class UploadsResourceConfig {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic()
+            .immutable();
+
+    @Value("${app.photos.dir:uploads/photos}")
+    private String photosDir;
+
+    @Value("${app.uploads.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    // Content-addressed photo store (see LocalDiskPhotoStore); images only, so no precompressed variants
+    @Bean
+    public ResourceHttpRequestHandler photoResourceHandler() {
+        ResourceHttpRequestHandler handler = newHandler(directoryLocation(photosDir));
+        // The file name is the SHA-256 of the original (derivatives add a fixed suffix), so it is the content hash
+        handler.setEtagGenerator(Resource::getFilename);
+        handler.setResourceResolvers(List.of(new PathResourceResolver()));
+        return handler;
+    }
+
+    // Legacy uploads directory; serves a .br/.gz sibling when one exists and the client accepts it
+    @Bean
+    public ResourceHttpRequestHandler legacyUploadResourceHandler() {
+        ResourceHttpRequestHandler handler = newHandler("file:uploads/");
+        handler.setEtagGenerator(UploadsResourceConfig::fileEtag);
+        handler.setResourceResolvers(List.of(new EncodedResourceResolver(), new PathResourceResolver()));
+        return handler;
+    }
+
+    @Bean
+    public SimpleUrlHandlerMapping uploadsHandlerMapping(ResourceHttpRequestHandler photoResourceHandler,
+            ResourceHttpRequestHandler legacyUploadResourceHandler) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping();
+        mapping.setUrlMap(Map.of(
+                "/uploads/photos/**", photoResourceHandler,
+                "/uploads/**", legacyUploadResourceHandler));
+        // Ahead of the default static resource mapping (Ordered.LOWEST_PRECEDENCE - 1)
+        mapping.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        return mapping;
+    }
+
+    private ResourceHttpRequestHandler newHandler(String location) {
+        ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler();
+        handler.setLocationValues(List.of(location));
+        handler.setCacheControl(IMMUTABLE);
+        handler.setResourceHttpMessageConverter(new SendfileResourceHttpMessageConverter(sendfileMinBytes));
+        return handler;
+    }
+
+    private static String directoryLocation(String dir) {
+        String location = Paths.get(dir).toAbsolutePath().toUri().toString();
+        return location.endsWith("/") ? location : location + "/";
+    }
+
+    // Identity of an immutable file: name, size and modification time (differs per encoding)
+    private static String fileEtag(Resource resource) {
+        try {
+            return resource.getFilename() + "-" + Long.toHexString(resource.contentLength()) + "-"
+                    + Long.toHexString(resource.lastModified());
+        } catch (java.io.IOException e) {
+            return null;
+        }
+    }
+}
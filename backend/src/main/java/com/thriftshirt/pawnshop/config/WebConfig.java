@@ -16,13 +16,7 @@ public class WebConfig implements WebMvcConfigurer {
                                 .allowedOriginPatterns(allowedOrigins.split(","))
                                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                                 .allowedHeaders("*")
+                                .exposedHeaders("X-Total-Count", "X-Next-Cursor", "X-Next-After-Id")
                                 .allowCredentials(true);
         }
-
-        @Override
-        public void addResourceHandlers(
-                        org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry registry) {
-                registry.addResourceHandler("/uploads/**")
-                                .addResourceLocations("file:uploads/");
-        }
 }
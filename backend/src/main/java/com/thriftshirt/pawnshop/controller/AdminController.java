@@ -1,12 +1,14 @@
 package com.thriftshirt.pawnshop.controller;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -55,6 +57,21 @@ public class AdminController {
     @Autowired
     private com.thriftshirt.pawnshop.service.UserService userService;
 
+    @Autowired
+    private com.thriftshirt.pawnshop.service.RevenueLedgerService revenueLedgerService;
+
+    @Autowired
+    private com.thriftshirt.pawnshop.service.PhotoMigrationService photoMigrationService;
+
+    @Autowired
+    private com.thriftshirt.pawnshop.service.NotificationService notificationService;
+
+    @Autowired
+    private com.thriftshirt.pawnshop.service.OverdueLoanSweeper overdueLoanSweeper;
+
+    @Autowired
+    private com.thriftshirt.pawnshop.service.AdminStatsService adminStatsService;
+
     @GetMapping("/dashboard")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse> getAdminDashboard(Authentication authentication) {
@@ -113,27 +130,113 @@ public class AdminController {
                     .body(ApiResponse.error("Admin access required"));
         }
 
-        // 1. Total Users
-        long totalUsers = userRepository.count();
+        // Cached snapshot (total users, active pawns, revenue); asOf/ageSeconds tell how fresh it is
+        com.thriftshirt.pawnshop.dto.response.AdminStatsSnapshot stats = adminStatsService.getSnapshot();
+
+        return ResponseEntity.ok(ApiResponse.success("Admin stats retrieved", stats));
+    }
 
-        // 2. Active Loans (Active Pawns)
-        long activePawns = loanRepository.countByStatus("ACTIVE");
+    // Recompute the revenue ledger from loan history (admin only)
+    @PostMapping("/revenue/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> rebuildRevenueLedger(Authentication authentication) {
+        logger.info("Admin rebuilding revenue ledger: {}", authentication.getName());
 
-        // 3. Revenue (System capital available)
-        java.math.BigDecimal revenue = loanService.calculateCurrentRevenue();
+        User user = (User) authentication.getPrincipal();
+        if (!user.getRole().name().equals("ADMIN")) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Admin access required"));
+        }
 
-        Map<String, Object> stats = Map.of(
-                "totalUsers", totalUsers,
-                "activePawns", activePawns,
-                "revenue", revenue);
+        try {
+            int buckets = revenueLedgerService.rebuild();
+            return ResponseEntity.ok(ApiResponse.success("Revenue ledger rebuilt",
+                    Map.of("buckets", buckets, "revenue", revenueLedgerService.getTotalRevenue())));
+        } catch (Exception e) {
+            logger.error("Error rebuilding revenue ledger: ", e);
+            return ResponseEntity.status(500)
+                    .body(ApiResponse.error("Failed to rebuild revenue ledger: " + e.getMessage()));
+        }
+    }
 
-        return ResponseEntity.ok(ApiResponse.success("Admin stats retrieved", stats));
+    // Move inline base64 photos into the photo store (admin only)
+    @PostMapping("/photos/migrate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> migrateInlinePhotos(Authentication authentication) {
+        logger.info("Admin migrating inline photos: {}", authentication.getName());
+
+        User user = (User) authentication.getPrincipal();
+        if (!user.getRole().name().equals("ADMIN")) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Admin access required"));
+        }
+
+        try {
+            Map<String, Integer> migrated = photoMigrationService.migrateInlinePhotos();
+            return ResponseEntity.ok(ApiResponse.success("Inline photos migrated", migrated));
+        } catch (Exception e) {
+            logger.error("Error migrating inline photos: ", e);
+            return ResponseEntity.status(500)
+                    .body(ApiResponse.error("Failed to migrate photos: " + e.getMessage()));
+        }
     }
 
-    // Get all pawn requests (admin only)
+    // Send the same notice to every enabled customer (admin only)
+    @PostMapping("/notifications/broadcast")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> broadcastNotification(
+            @RequestBody Map<String, String> request,
+            Authentication authentication) {
+        logger.info("Admin broadcasting notification: {}", authentication.getName());
+
+        User user = (User) authentication.getPrincipal();
+        if (!user.getRole().name().equals("ADMIN")) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Admin access required"));
+        }
+
+        String message = request.get("message");
+        if (message == null || message.isBlank()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Message is required"));
+        }
+
+        try {
+            int recipients = notificationService.broadcastToUsers(message, request.getOrDefault("type", "INFO"));
+            return ResponseEntity.ok(ApiResponse.success("Notification broadcast", Map.of("recipients", recipients)));
+        } catch (Exception e) {
+            logger.error("Error broadcasting notification: ", e);
+            return ResponseEntity.status(500)
+                    .body(ApiResponse.error("Failed to broadcast notification: " + e.getMessage()));
+        }
+    }
+
+    // Delete notifications older than the retention window (admin only)
+    @PostMapping("/notifications/purge")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> purgeNotifications(
+            @RequestParam(defaultValue = "90") int olderThanDays,
+            @RequestParam(defaultValue = "true") boolean readOnly,
+            Authentication authentication) {
+        logger.info("Admin purging notifications older than {} days: {}", olderThanDays, authentication.getName());
+
+        User user = (User) authentication.getPrincipal();
+        if (!user.getRole().name().equals("ADMIN")) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Admin access required"));
+        }
+
+        try {
+            int deleted = notificationService.purgeOlderThan(olderThanDays, readOnly);
+            return ResponseEntity.ok(ApiResponse.success("Notifications purged", Map.of("deleted", deleted)));
+        } catch (Exception e) {
+            logger.error("Error purging notifications: ", e);
+            return ResponseEntity.status(400)
+                    .body(ApiResponse.error("Failed to purge notifications: " + e.getMessage()));
+        }
+    }
+
+    // Get all pawn requests, optionally filtered by status (admin only)
     @GetMapping("/pawn-requests")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse> getAllPawnRequests(Authentication authentication) {
+    public ResponseEntity<ApiResponse> getAllPawnRequests(
+            @RequestParam(required = false) String status,
+            Authentication authentication) {
         logger.info("Admin fetching all pawn requests: {}", authentication.getName());
 
         User user = (User) authentication.getPrincipal();
@@ -144,8 +247,13 @@ public class AdminController {
         }
 
         try {
-            List<PawnRequestResponse> allRequests = pawnRequestService.getAllPawnRequests();
+            // Optional status filter, served by the status/created_at index
+            List<PawnRequestResponse> allRequests = status != null && !status.isBlank()
+                    ? pawnRequestService.getPawnRequestsByStatus(status)
+                    : pawnRequestService.getAllPawnRequests();
             return ResponseEntity.ok(ApiResponse.success("Pawn requests retrieved", allRequests));
+        } catch (com.thriftshirt.pawnshop.exception.BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error fetching pawn requests: ", e);
             return ResponseEntity.status(500)
@@ -176,7 +284,14 @@ public class AdminController {
     // Get all activity logs (admin only)
     @GetMapping("/logs")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse> getActivityLogs(Authentication authentication) {
+    public ResponseEntity<ApiResponse> getActivityLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "100") Integer limit,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            Authentication authentication) {
         logger.info("Admin fetching activity logs: {}", authentication.getName());
 
         User user = (User) authentication.getPrincipal();
@@ -185,8 +300,15 @@ public class AdminController {
         }
 
         try {
-            List<com.thriftshirt.pawnshop.entity.TransactionLog> logs = transactionLogService.getAllLogs();
-            return ResponseEntity.ok(ApiResponse.success("Activity logs retrieved", logs));
+            com.thriftshirt.pawnshop.dto.response.TransactionLogPageResponse logs = transactionLogService
+                    .getLogsPage(cursor, limit, action, userId, from, to);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (logs.getNextCursor() != null) {
+                response.header("X-Next-Cursor", logs.getNextCursor());
+            }
+            return response.body(ApiResponse.success("Activity logs retrieved", logs.getItems()));
+        } catch (com.thriftshirt.pawnshop.exception.BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error fetching activity logs: ", e);
             return ResponseEntity.status(500).body(ApiResponse.error("Failed to fetch logs: " + e.getMessage()));
@@ -286,6 +408,10 @@ public class AdminController {
             PawnRequestResponse updated = pawnRequestService.updatePawnRequestStatus(pawnId, newStatus, user);
             logger.info("Pawn request {} status updated to: {}", pawnId, newStatus);
             return ResponseEntity.ok(ApiResponse.success("Status updated successfully", updated));
+        } catch (com.thriftshirt.pawnshop.exception.ConflictException e) {
+            return ResponseEntity.status(409).body(ApiResponse.error(e.getMessage()));
+        } catch (com.thriftshirt.pawnshop.exception.BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error updating pawn request status: ", e);
             return ResponseEntity.status(500)
@@ -314,6 +440,10 @@ public class AdminController {
         try {
             com.thriftshirt.pawnshop.entity.Loan loan = loanService.createLoan(pawnId, interestRate, daysUntilDue);
             return ResponseEntity.ok(ApiResponse.success("Pawn validated and loan created successfully", loan));
+        } catch (com.thriftshirt.pawnshop.exception.ConflictException e) {
+            return ResponseEntity.status(409).body(ApiResponse.error(e.getMessage()));
+        } catch (com.thriftshirt.pawnshop.exception.BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error validating pawn request: ", e);
             return ResponseEntity.status(500)
@@ -324,7 +454,12 @@ public class AdminController {
     // Get all active loans (admin only)
     @GetMapping("/loans/active")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse> getActiveLoans(Authentication authentication) {
+    public ResponseEntity<ApiResponse> getActiveLoans(
+            @RequestParam(required = false, defaultValue = "0") Integer page,
+            @RequestParam(required = false, defaultValue = "100") Integer size,
+            @RequestParam(required = false, defaultValue = "dueDate") String sortBy,
+            @RequestParam(required = false, defaultValue = "asc") String direction,
+            Authentication authentication) {
         logger.info("Admin fetching active loans: {}", authentication.getName());
 
         User user = (User) authentication.getPrincipal();
@@ -333,14 +468,63 @@ public class AdminController {
         }
 
         try {
-            List<com.thriftshirt.pawnshop.entity.Loan> activeLoans = loanService.getAllActiveLoans();
-            return ResponseEntity.ok(ApiResponse.success("Active loans retrieved", activeLoans));
+            org.springframework.data.domain.Page<com.thriftshirt.pawnshop.entity.Loan> activeLoans = loanService
+                    .getActiveLoans(page, size, sortBy, direction);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(activeLoans.getTotalElements()))
+                    .body(ApiResponse.success("Active loans retrieved", activeLoans.getContent()));
         } catch (Exception e) {
             logger.error("Error fetching active loans: ", e);
             return ResponseEntity.status(500).body(ApiResponse.error("Failed to fetch active loans"));
         }
     }
 
+    // Get overdue active loans, oldest due date first (admin only)
+    @GetMapping("/loans/overdue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> getOverdueLoans(
+            @RequestParam(required = false, defaultValue = "0") Integer page,
+            @RequestParam(required = false, defaultValue = "100") Integer size,
+            Authentication authentication) {
+        logger.info("Admin fetching overdue loans: {}", authentication.getName());
+
+        User user = (User) authentication.getPrincipal();
+        if (!user.getRole().name().equals("ADMIN")) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Admin access required"));
+        }
+
+        try {
+            org.springframework.data.domain.Page<com.thriftshirt.pawnshop.entity.Loan> loans = loanService
+                    .getOverdueLoans(page, size);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(loans.getTotalElements()))
+                    .body(ApiResponse.success("Overdue loans retrieved", loans.getContent()));
+        } catch (Exception e) {
+            logger.error("Error fetching overdue loans: ", e);
+            return ResponseEntity.status(500).body(ApiResponse.error("Failed to fetch overdue loans"));
+        }
+    }
+
+    // Run the overdue loan sweep now instead of waiting for the nightly schedule (admin only)
+    @PostMapping("/loans/overdue/sweep")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> sweepOverdueLoans(Authentication authentication) {
+        logger.info("Admin running overdue loan sweep: {}", authentication.getName());
+
+        User user = (User) authentication.getPrincipal();
+        if (!user.getRole().name().equals("ADMIN")) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Admin access required"));
+        }
+
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Overdue loan sweep finished", overdueLoanSweeper.sweep()));
+        } catch (Exception e) {
+            logger.error("Error sweeping overdue loans: ", e);
+            return ResponseEntity.status(500)
+                    .body(ApiResponse.error("Failed to sweep overdue loans: " + e.getMessage()));
+        }
+    }
+
     // Process loan payment (admin only)
     @PostMapping("/loans/{loanId}/payment")
     @PreAuthorize("hasRole('ADMIN')")
@@ -361,6 +545,10 @@ public class AdminController {
 
             com.thriftshirt.pawnshop.entity.Loan loan = loanService.processPayment(loanId, userId);
             return ResponseEntity.ok(ApiResponse.success("Payment processed successfully", loan));
+        } catch (com.thriftshirt.pawnshop.exception.ConflictException e) {
+            return ResponseEntity.status(409).body(ApiResponse.error(e.getMessage()));
+        } catch (com.thriftshirt.pawnshop.exception.BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error processing payment: ", e);
             return ResponseEntity.status(500).body(ApiResponse.error("Failed to process payment: " + e.getMessage()));
@@ -383,6 +571,10 @@ public class AdminController {
         try {
             com.thriftshirt.pawnshop.entity.Loan loan = loanService.forfeitLoan(loanId);
             return ResponseEntity.ok(ApiResponse.success("Loan forfeited successfully", loan));
+        } catch (com.thriftshirt.pawnshop.exception.ConflictException e) {
+            return ResponseEntity.status(409).body(ApiResponse.error(e.getMessage()));
+        } catch (com.thriftshirt.pawnshop.exception.BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error forfeiting loan: ", e);
             return ResponseEntity.status(500).body(ApiResponse.error("Failed to forfeit loan: " + e.getMessage()));
@@ -442,6 +634,10 @@ public class AdminController {
 
             logger.info("Pawn request {} assessed. Offer: ₱{}", pawnId, offeredAmount);
             return ResponseEntity.ok(ApiResponse.success("Assessment submitted successfully", response));
+        } catch (com.thriftshirt.pawnshop.exception.ConflictException e) {
+            return ResponseEntity.status(409).body(ApiResponse.error(e.getMessage()));
+        } catch (com.thriftshirt.pawnshop.exception.BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error assessing pawn request: ", e);
             return ResponseEntity.status(500)
@@ -1,20 +1,28 @@
 package com.thriftshirt.pawnshop.controller;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
 import com.thriftshirt.pawnshop.dto.response.ApiResponse;
+import com.thriftshirt.pawnshop.service.StoredImageService;
+import com.thriftshirt.pawnshop.service.UploadService;
+import com.thriftshirt.pawnshop.storage.ImageStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/upload")
@@ -23,32 +31,81 @@ public class FileUploadController {
     private static final Logger logger = LoggerFactory.getLogger(FileUploadController.class);
 
     @Autowired
-    private Cloudinary cloudinary;
+    private UploadService uploadService;
 
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private StoredImageService storedImageService;
+
+    @Value("${app.uploads.timeout-ms:60000}")
+    private long uploadTimeoutMs;
+
+    // The servlet thread is released once the file is spooled; the response is written when the upload finishes
     @PostMapping
-    public ResponseEntity<ApiResponse> uploadFile(@RequestParam("file") MultipartFile file) {
+    public DeferredResult<ResponseEntity<ApiResponse>> uploadFile(@RequestParam("file") MultipartFile file) {
+        DeferredResult<ResponseEntity<ApiResponse>> result = new DeferredResult<>(uploadTimeoutMs,
+                () -> ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                        .body(ApiResponse.error("Image upload timed out, please try again.")));
+
         if (file.isEmpty()) {
-            return ResponseEntity.badRequest().body(ApiResponse.error("Please select a file to upload."));
+            result.setResult(ResponseEntity.badRequest().body(ApiResponse.error("Please select a file to upload.")));
+            return result;
         }
 
         String originalFilename = file.getOriginalFilename();
         long size = file.getSize();
         logger.info("Received file upload request. Name: {}, Size: {} bytes", originalFilename, size);
+        // Resolved now: the upload completes on a worker thread without the request context
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
 
         try {
-            Map<String, Object> uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-            String url = (String) uploadResult.get("secure_url");
-            logger.info("Upload successful. URL: {}", url);
-            return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", url));
+            uploadService.upload(file).whenComplete((stored, error) -> {
+                if (error == null) {
+                    String url = imageStore.toUrl(stored, baseUrl);
+                    logger.info("Upload successful. URL: {}", url);
+                    result.setResult(ResponseEntity.ok(ApiResponse.success("File uploaded successfully", url)));
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                logger.error("Upload failed for file: {}", originalFilename, cause);
+                // Include message in response for debugging (dev only, but helpful here)
+                result.setResult(ResponseEntity.internalServerError()
+                        .body(ApiResponse.error("Image upload failed: " + cause.getMessage())));
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Upload queue full, rejecting file: {}", originalFilename);
+            result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Too many uploads in progress, please try again shortly.")));
         } catch (IOException e) {
-            logger.error("Cloudinary upload failed for file: " + originalFilename, e);
-            // Include message in response for debugging (dev only, but helpful here)
-            return ResponseEntity.internalServerError()
-                    .body(ApiResponse.error("Image upload failed: " + e.getMessage()));
+            logger.error("Could not spool upload for file: " + originalFilename, e);
+            result.setResult(ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Image upload failed: " + e.getMessage())));
         } catch (Exception e) {
             logger.error("Unexpected error during file upload", e);
+            result.setResult(ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Unexpected upload error: " + e.getMessage())));
+        }
+        return result;
+    }
+
+    // Lets the client skip sending bytes that are already stored: 200 with the URL, or 404 to upload normally
+    @GetMapping("/{sha256:[0-9a-f]{64}}")
+    public ResponseEntity<ApiResponse> findByHash(@PathVariable String sha256) {
+        try {
+            String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+            return storedImageService.findByHash(sha256)
+                    .map(stored -> ResponseEntity.ok(ApiResponse.success("File already uploaded",
+                            imageStore.toUrl(stored, baseUrl))))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(ApiResponse.error("No file with this content has been uploaded.")));
+        } catch (Exception e) {
+            logger.error("Error looking up upload by hash", e);
             return ResponseEntity.internalServerError()
-                    .body(ApiResponse.error("Unexpected upload error: " + e.getMessage()));
+                    .body(ApiResponse.error("Error looking up upload: " + e.getMessage()));
         }
     }
 }
@@ -1,24 +1,34 @@
 package com.thriftshirt.pawnshop.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import com.thriftshirt.pawnshop.dto.response.ApiResponse;
-import com.thriftshirt.pawnshop.entity.Notification;
+import com.thriftshirt.pawnshop.dto.response.NotificationPageResponse;
 import com.thriftshirt.pawnshop.entity.User;
+import com.thriftshirt.pawnshop.exception.BadRequestException;
 import com.thriftshirt.pawnshop.service.NotificationService;
+import com.thriftshirt.pawnshop.service.NotificationStreamRegistry;
+import com.thriftshirt.pawnshop.service.StreamTicketService;
 
 @RestController
 @RequestMapping("/notifications")
@@ -29,11 +39,35 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamRegistry notificationStreamRegistry;
+
+    @Autowired
+    private StreamTicketService streamTicketService;
+
+    // Newest notifications first; pass X-Next-Cursor back as cursor for older ones, or afterId for new ones
+    // (oldest first; X-Next-After-Id is set when more new ones remain)
     @GetMapping
-    public ResponseEntity<ApiResponse> getUserNotifications(Authentication authentication) {
+    public ResponseEntity<ApiResponse> getUserNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false, defaultValue = "50") Integer limit,
+            Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        List<Notification> notifications = notificationService.getUserNotifications(user.getId());
-        return ResponseEntity.ok(ApiResponse.success("Notifications retrieved", notifications));
+        try {
+            NotificationPageResponse page = notificationService.getNotificationFeed(user.getId(), cursor, afterId,
+                    limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            if (page.getNextAfterId() != null) {
+                response.header("X-Next-After-Id", String.valueOf(page.getNextAfterId()));
+            }
+            return response.body(ApiResponse.success("Notifications retrieved", page.getItems()));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
     }
 
     @GetMapping("/unread-count")
@@ -43,6 +77,32 @@ public class NotificationController {
         return ResponseEntity.ok(ApiResponse.success("Unread count retrieved", count));
     }
 
+    // Single-use ticket for opening the stream, valid for a few seconds; pass it as ?ticket=
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<ApiResponse> issueStreamTicket(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(ApiResponse.success("Stream ticket issued",
+                streamTicketService.issue(user.getUsername())));
+    }
+
+    /**
+     * Server-sent event stream of new notifications. Sends the current unread count on connect,
+     * then a "notification" event for each notification created for the user.
+     * Authenticated with a ticket from POST /notifications/stream-ticket, since EventSource cannot send headers.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(Authentication authentication, HttpServletResponse response)
+            throws IOException {
+        User user = (User) authentication.getPrincipal();
+        // Stop reverse proxies from buffering the stream
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+
+        SseEmitter emitter = notificationStreamRegistry.register(user.getId());
+        emitter.send(SseEmitter.event().name("unread-count").data(notificationService.getUnreadCount(user.getId())));
+        return emitter;
+    }
+
     @PutMapping("/{notifId}/read")
     public ResponseEntity<ApiResponse> markAsRead(@PathVariable Long notifId, Authentication authentication) {
         User user = (User) authentication.getPrincipal();
@@ -53,8 +113,29 @@ public class NotificationController {
     @PutMapping("/read-all")
     public ResponseEntity<ApiResponse> markAllAsRead(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        notificationService.markAllAsRead(user.getId());
-        return ResponseEntity.ok(ApiResponse.success("All notifications marked as read"));
+        int updated = notificationService.markAllAsRead(user.getId());
+        return ResponseEntity.ok(ApiResponse.success("All notifications marked as read", updated));
+    }
+
+    // Delete the given notifications; at least one id is required
+    @DeleteMapping
+    public ResponseEntity<ApiResponse> deleteNotifications(@RequestParam(required = false) List<Long> ids,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        try {
+            int deleted = notificationService.deleteNotifications(ids, user.getId());
+            return ResponseEntity.ok(ApiResponse.success("Notifications deleted", deleted));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // Delete every notification of the user; a separate path so an empty selection can never reach it
+    @DeleteMapping("/all")
+    public ResponseEntity<ApiResponse> deleteAllNotifications(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        int deleted = notificationService.deleteAllNotifications(user.getId());
+        return ResponseEntity.ok(ApiResponse.success("All notifications deleted", deleted));
     }
 
     @DeleteMapping("/{notifId}")
@@ -22,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.thriftshirt.pawnshop.dto.request.CreatePawnRequestDTO;
 import com.thriftshirt.pawnshop.dto.response.ApiResponse;
 import com.thriftshirt.pawnshop.dto.response.UserProfileResponse;
+import com.thriftshirt.pawnshop.entity.PawnStatus;
 import com.thriftshirt.pawnshop.entity.TransactionLog;
 import com.thriftshirt.pawnshop.entity.User;
 import com.thriftshirt.pawnshop.service.AuthService;
@@ -193,18 +194,15 @@ public class UserController {
 
         try {
             // Find the associated loan
-            List<com.thriftshirt.pawnshop.entity.Loan> userLoans = loanService.getUserLoans(user.getId());
-            com.thriftshirt.pawnshop.entity.Loan targetLoan = userLoans.stream()
-                    .filter(loan -> loan.getPawnItem().getPawnId().equals(pawnId))
-                    .findFirst()
-                    .orElseThrow(() -> new com.thriftshirt.pawnshop.exception.ResourceNotFoundException(
-                            "No active loan found for this pawn item"));
+            com.thriftshirt.pawnshop.entity.Loan targetLoan = loanService.getUserLoanByPawnId(user.getId(), pawnId);
 
             com.thriftshirt.pawnshop.entity.Loan loan = loanService.processPayment(targetLoan.getLoanId(),
                     user.getId());
 
             logger.info("Loan {} redeemed successfully by user: {}", targetLoan.getLoanId(), user.getId());
             return ResponseEntity.ok(ApiResponse.success("Loan redeemed successfully", loan));
+        } catch (com.thriftshirt.pawnshop.exception.ConflictException e) {
+            return ResponseEntity.status(409).body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error redeeming loan: ", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -230,7 +228,7 @@ public class UserController {
             // Get user's pawned items with loans
             var pawnedItems = pawnRequestService.getUserPawnRequests(user.getId())
                     .stream()
-                    .filter(pawn -> "PAWNED".equals(pawn.getStatus()))
+                    .filter(pawn -> PawnStatus.ACTIVE.name().equals(pawn.getStatus()))
                     .collect(java.util.stream.Collectors.toList());
 
             return ResponseEntity.ok(ApiResponse.success("User loans retrieved successfully", pawnedItems));
@@ -330,6 +328,8 @@ public class UserController {
         try {
             var response = pawnRequestService.respondToOffer(pawnId, accept);
             return ResponseEntity.ok(ApiResponse.success("Offer response recorded", response));
+        } catch (com.thriftshirt.pawnshop.exception.ConflictException e) {
+            return ResponseEntity.status(409).body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error responding to offer: ", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
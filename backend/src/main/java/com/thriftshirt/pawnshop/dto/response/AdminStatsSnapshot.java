@@ -0,0 +1,45 @@
+package com.thriftshirt.pawnshop.dto.response;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable point-in-time copy of the admin dashboard stats.
+ */
+public class AdminStatsSnapshot {
+
+    private final long totalUsers;
+    private final long activePawns;
+    private final BigDecimal revenue;
+    private final LocalDateTime asOf;
+
+    // Constructor
+    public AdminStatsSnapshot(long totalUsers, long activePawns, BigDecimal revenue, LocalDateTime asOf) {
+        this.totalUsers = totalUsers;
+        this.activePawns = activePawns;
+        this.revenue = revenue;
+        this.asOf = asOf;
+    }
+
+    // Getters
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public long getActivePawns() {
+        return activePawns;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public long getAgeSeconds() {
+        return Duration.between(asOf, LocalDateTime.now()).getSeconds();
+    }
+}
@@ -0,0 +1,51 @@
+package com.thriftshirt.pawnshop.dto.response;
+
+import java.util.List;
+
+public class NotificationPageResponse {
+
+    private List<NotificationResponse> items;
+    private String nextCursor;
+    private Long nextAfterId;
+
+    // Constructor
+    public NotificationPageResponse(List<NotificationResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public NotificationPageResponse(List<NotificationResponse> items, String nextCursor, Long nextAfterId) {
+        this(items, nextCursor);
+        this.nextAfterId = nextAfterId;
+    }
+
+    // Getters and Setters
+    public List<NotificationResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<NotificationResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    // Set on a delta page that was cut off: pass it back as afterId for the rest
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public void setNextAfterId(Long nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null || nextAfterId != null;
+    }
+}
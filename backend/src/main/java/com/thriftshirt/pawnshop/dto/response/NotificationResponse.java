@@ -0,0 +1,67 @@
+package com.thriftshirt.pawnshop.dto.response;
+
+import java.time.LocalDateTime;
+
+import com.thriftshirt.pawnshop.entity.Notification;
+
+public class NotificationResponse {
+
+    private Long notifId;
+    private String message;
+    private String type;
+    private boolean read;
+    private LocalDateTime timestamp;
+
+    // Constructors
+    public NotificationResponse() {
+    }
+
+    public NotificationResponse(Notification notification) {
+        this.notifId = notification.getNotifId();
+        this.message = notification.getMessage();
+        this.type = notification.getType();
+        this.read = notification.isRead();
+        this.timestamp = notification.getTimestamp();
+    }
+
+    // Getters and Setters
+    public Long getNotifId() {
+        return notifId;
+    }
+
+    public void setNotifId(Long notifId) {
+        this.notifId = notifId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public void setRead(boolean read) {
+        this.read = read;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
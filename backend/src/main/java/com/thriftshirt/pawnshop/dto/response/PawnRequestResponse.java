@@ -1,8 +1,14 @@
 package com.thriftshirt.pawnshop.dto.response;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.thriftshirt.pawnshop.entity.PawnStatus;
+import com.thriftshirt.pawnshop.storage.PhotoReferenceSerializer;
+import com.thriftshirt.pawnshop.storage.PhotoVariantSerializer;
+
 public class PawnRequestResponse {
 
     private Long pawnId;
@@ -15,6 +21,7 @@ public class PawnRequestResponse {
     private Double loanAmount;
     private Double estimatedValue;
     private Double offeredAmount;
+    @JsonSerialize(using = PhotoReferenceSerializer.class)
     private String photos;
     private String status;
     private LocalDate appraisalDate;
@@ -54,6 +61,19 @@ public class PawnRequestResponse {
         this.proposedLoanDuration = proposedLoanDuration;
     }
 
+    // Projection constructor used by JPQL constructor expressions in PawnRequestRepository
+    public PawnRequestResponse(Long pawnId, String itemName, String brand, String size,
+            String condition, String category, String description,
+            BigDecimal offeredAmount, String photos, PawnStatus status,
+            LocalDate appraisalDate, String appraisedBy,
+            Integer interestRate, LocalDate dueDate, LocalDateTime createdAt,
+            BigDecimal proposedInterestRate, Integer proposedLoanDuration) {
+        this(pawnId, itemName, brand, size, condition, category, description,
+                null, null, offeredAmount != null ? offeredAmount.doubleValue() : null, photos,
+                status != null ? status.name() : null, appraisalDate, appraisedBy, interestRate, dueDate, createdAt,
+                proposedInterestRate != null ? proposedInterestRate.doubleValue() : null, proposedLoanDuration);
+    }
+
     // Getters and Setters
     public Long getPawnId() {
         return pawnId;
@@ -135,6 +155,18 @@ public class PawnRequestResponse {
         this.photos = photos;
     }
 
+    // Same entries as photos, pointing at small thumbnails for list views
+    @JsonSerialize(using = PhotoVariantSerializer.Thumbnails.class)
+    public String getThumbnails() {
+        return photos;
+    }
+
+    // Same entries as photos, pointing at compressed previews for image viewers
+    @JsonSerialize(using = PhotoVariantSerializer.Previews.class)
+    public String getPreviews() {
+        return photos;
+    }
+
     public String getStatus() {
         return status;
     }
@@ -0,0 +1,38 @@
+package com.thriftshirt.pawnshop.dto.response;
+
+import java.util.List;
+
+import com.thriftshirt.pawnshop.entity.TransactionLog;
+
+public class TransactionLogPageResponse {
+
+    private List<TransactionLog> items;
+    private String nextCursor;
+
+    // Constructor
+    public TransactionLogPageResponse(List<TransactionLog> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<TransactionLog> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TransactionLog> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -10,12 +10,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "loan")
+@Table(name = "loan", indexes = {
+        @Index(name = "idx_loan_status_code_due_date", columnList = "status_code, due_date")
+})
 public class Loan {
 
     @Id
@@ -34,12 +38,25 @@ public class Loan {
 
     private LocalDate dueDate;
 
-    private String status;
+    // Stored as a one-byte code; LegacyStatusMigrationService backfills it from the legacy varchar "status" column
+    @Column(name = "status_code", columnDefinition = "tinyint")
+    private LoanStatus status;
 
     private BigDecimal penalty;
 
     private LocalDate dateRedeemed;
 
+    // Day the due-soon reminder was sent; null until then
+    private LocalDate dueReminderSentOn;
+
+    // Day the overdue notice was sent; null until then
+    private LocalDate overdueNoticeSentOn;
+
+    // Optimistic lock: concurrent payment/forfeit on the same loan fail instead of overwriting each other
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Getters & Setters
     public Long getLoanId() {
         return loanId;
@@ -81,11 +98,11 @@ public class Loan {
         this.dueDate = dueDate;
     }
 
-    public String getStatus() {
+    public LoanStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(LoanStatus status) {
         this.status = status;
     }
 
@@ -105,6 +122,30 @@ public class Loan {
         this.dateRedeemed = dateRedeemed;
     }
 
+    public LocalDate getDueReminderSentOn() {
+        return dueReminderSentOn;
+    }
+
+    public void setDueReminderSentOn(LocalDate dueReminderSentOn) {
+        this.dueReminderSentOn = dueReminderSentOn;
+    }
+
+    public LocalDate getOverdueNoticeSentOn() {
+        return overdueNoticeSentOn;
+    }
+
+    public void setOverdueNoticeSentOn(LocalDate overdueNoticeSentOn) {
+        this.overdueNoticeSentOn = overdueNoticeSentOn;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Calculate the total amount to redeem (loan amount + interest + penalty)
      */
@@ -0,0 +1,37 @@
+package com.thriftshirt.pawnshop.entity;
+
+/**
+ * Loan lifecycle. Persisted as a one-byte code (see LoanStatusConverter);
+ * codes must never be renumbered once written.
+ */
+public enum LoanStatus {
+    ACTIVE(1),
+    PAID(2),
+    DEFAULTED(3);
+
+    private static final LoanStatus[] BY_CODE = new LoanStatus[4];
+
+    static {
+        for (LoanStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final short code;
+
+    LoanStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static LoanStatus fromCode(short code) {
+        LoanStatus status = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown loan status code: " + code);
+        }
+        return status;
+    }
+}
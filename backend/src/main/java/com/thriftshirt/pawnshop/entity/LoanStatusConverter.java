@@ -0,0 +1,18 @@
+package com.thriftshirt.pawnshop.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class LoanStatusConverter implements AttributeConverter<LoanStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(LoanStatus status) {
+        return status != null ? status.getCode() : null;
+    }
+
+    @Override
+    public LoanStatus convertToEntityAttribute(Short code) {
+        return code != null ? LoanStatus.fromCode(code) : null;
+    }
+}
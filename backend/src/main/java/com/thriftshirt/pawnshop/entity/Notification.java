@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notification")
+@Table(name = "notification", indexes = {
+        @Index(name = "idx_notification_user_timestamp", columnList = "user_id, timestamp"),
+        @Index(name = "idx_notification_timestamp", columnList = "timestamp")
+})
 public class Notification {
 
     @Id
@@ -3,6 +3,8 @@ package com.thriftshirt.pawnshop.entity;
 import java.time.LocalDate;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.thriftshirt.pawnshop.storage.PhotoReferenceSerializer;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -11,13 +13,18 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "pawn_request")
+@Table(name = "pawn_request", indexes = {
+        @Index(name = "idx_pawn_request_user_id", columnList = "user_id"),
+        @Index(name = "idx_pawn_request_status_code_created_at", columnList = "status_code, created_at")
+})
 public class PawnRequest {
 
     @Id
@@ -59,11 +66,14 @@ public class PawnRequest {
     @Column(name = "proposed_loan_duration")
     private Integer proposedLoanDuration;
 
+    // Stored entries may be photo:<id> references; expanded to URLs when the entity is serialized (e.g. as loan.pawnItem)
     @Column(name = "photos", columnDefinition = "TEXT")
+    @JsonSerialize(using = PhotoReferenceSerializer.class)
     private String photos; // could store URLs or JSON (array)
 
-    @Column(name = "status")
-    private String status;
+    // Stored as a one-byte code; LegacyStatusMigrationService backfills it from the legacy varchar "status" column
+    @Column(name = "status_code", columnDefinition = "tinyint")
+    private PawnStatus status;
 
     private java.time.LocalDateTime createdAt;
 
@@ -75,6 +85,11 @@ public class PawnRequest {
     @JsonIgnoreProperties("pawnItem")
     private Loan loan;
 
+    // Optimistic lock: concurrent status changes on the same request fail instead of overwriting each other
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Getters & Setters
     public Long getPawnId() {
         return pawnId;
@@ -180,11 +195,11 @@ public class PawnRequest {
         this.photos = photos;
     }
 
-    public String getStatus() {
+    public PawnStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(PawnStatus status) {
         this.status = status;
     }
 
@@ -220,4 +235,12 @@ public class PawnRequest {
         this.loan = loan;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.thriftshirt.pawnshop.entity;
+
+/**
+ * Pawn request lifecycle. Persisted as a one-byte code (see PawnStatusConverter);
+ * codes must never be renumbered once written.
+ */
+public enum PawnStatus {
+    PENDING(1),
+    APPROVED(2),
+    OFFER_MADE(3),
+    ACCEPTED(4),
+    OFFER_ACCEPTED(5),
+    ACTIVE(6),
+    REDEEMED(7),
+    FORFEITED(8),
+    REJECTED(9);
+
+    private static final PawnStatus[] BY_CODE = new PawnStatus[10];
+
+    static {
+        for (PawnStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final short code;
+
+    PawnStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static PawnStatus fromCode(short code) {
+        PawnStatus status = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown pawn status code: " + code);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,18 @@
+package com.thriftshirt.pawnshop.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class PawnStatusConverter implements AttributeConverter<PawnStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(PawnStatus status) {
+        return status != null ? status.getCode() : null;
+    }
+
+    @Override
+    public PawnStatus convertToEntityAttribute(Short code) {
+        return code != null ? PawnStatus.fromCode(code) : null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.thriftshirt.pawnshop.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One row per distinct image content ever stored, keyed by the SHA-256 of its bytes.
+ * refCount is the number of saved values (pawn photos, transaction log photos,
+ * profile images) pointing at it; unreferenced images are deleted after a grace period.
+ * Pinned rows are never deleted: they stand for files that already existed before
+ * reference counting, which records saved back then may still point at.
+ */
+@Entity
+@Table(name = "stored_image", indexes = {
+        @Index(name = "idx_stored_image_stored_value", columnList = "stored_value", unique = true),
+        @Index(name = "idx_stored_image_ref_count_last_uploaded", columnList = "ref_count, last_uploaded_at")
+})
+public class StoredImage {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // photo:<id> reference or absolute URL, as returned by the image store
+    @Column(name = "stored_value", nullable = false, length = 512)
+    private String storedValue;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "pinned", nullable = false, columnDefinition = "boolean default false")
+    private boolean pinned;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Last time this content was uploaded (or found by hash); restarts the grace period
+    @Column(name = "last_uploaded_at")
+    private LocalDateTime lastUploadedAt;
+
+    // Getters & Setters
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getStoredValue() {
+        return storedValue;
+    }
+
+    public void setStoredValue(String storedValue) {
+        this.storedValue = storedValue;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastUploadedAt() {
+        return lastUploadedAt;
+    }
+
+    public void setLastUploadedAt(LocalDateTime lastUploadedAt) {
+        this.lastUploadedAt = lastUploadedAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.thriftshirt.pawnshop.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Short-lived, single-use ticket that authenticates one notification stream connection.
+ * Only the SHA-256 of the ticket is stored.
+ */
+@Entity
+@Table(name = "stream_ticket", indexes = {
+        @Index(name = "idx_stream_ticket_expires_at", columnList = "expires_at")
+})
+public class StreamTicket {
+
+    @Id
+    @Column(name = "ticket_hash", length = 64)
+    private String ticketHash;
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Getters & Setters
+    public String getTicketHash() {
+        return ticketHash;
+    }
+
+    public void setTicketHash(String ticketHash) {
+        this.ticketHash = ticketHash;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
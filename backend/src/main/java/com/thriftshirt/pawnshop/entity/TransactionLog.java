@@ -3,6 +3,8 @@ package com.thriftshirt.pawnshop.entity;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.thriftshirt.pawnshop.storage.PhotoReferenceSerializer;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,16 +12,21 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "transaction_log")
+@Table(name = "transaction_log", indexes = {
+        @Index(name = "idx_transaction_log_timestamp_id", columnList = "log_timestamp, log_id"),
+        @Index(name = "idx_transaction_log_user_timestamp", columnList = "user_id, log_timestamp")
+})
 public class TransactionLog {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "log_id")
     private Long logId;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -41,6 +48,7 @@ public class TransactionLog {
     private String condition;
 
     @Column(columnDefinition = "TEXT")
+    @JsonSerialize(using = PhotoReferenceSerializer.class)
     private String photos;
 
     // Getters & Setters
@@ -0,0 +1,112 @@
+package com.thriftshirt.pawnshop.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Precomputed dashboard numbers for one user, so the stats endpoint is a single
+ * primary-key read instead of a scan of the user's pawn requests and loans.
+ * Counters are adjusted in place on every loan and notification change.
+ */
+@Entity
+@Table(name = "user_dashboard_counters")
+public class UserDashboardCounters {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // False until the totals below have been counted from the source tables
+    @Column(name = "seeded", nullable = false)
+    private boolean seeded;
+
+    @Column(name = "active_pawns", nullable = false)
+    private int activePawns;
+
+    @Column(name = "outstanding_principal", nullable = false, precision = 19, scale = 2)
+    private BigDecimal outstandingPrincipal = BigDecimal.ZERO;
+
+    @Column(name = "unread_notifications", nullable = false)
+    private int unreadNotifications;
+
+    // Active loans due within the reminder window, as of dueSoonAsOf
+    @Column(name = "due_soon", nullable = false)
+    private int dueSoon;
+
+    @Column(name = "due_soon_as_of")
+    private LocalDate dueSoonAsOf;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Getters & Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public void setSeeded(boolean seeded) {
+        this.seeded = seeded;
+    }
+
+    public int getActivePawns() {
+        return activePawns;
+    }
+
+    public void setActivePawns(int activePawns) {
+        this.activePawns = activePawns;
+    }
+
+    public BigDecimal getOutstandingPrincipal() {
+        return outstandingPrincipal;
+    }
+
+    public void setOutstandingPrincipal(BigDecimal outstandingPrincipal) {
+        this.outstandingPrincipal = outstandingPrincipal;
+    }
+
+    public int getUnreadNotifications() {
+        return unreadNotifications;
+    }
+
+    public void setUnreadNotifications(int unreadNotifications) {
+        this.unreadNotifications = unreadNotifications;
+    }
+
+    public int getDueSoon() {
+        return dueSoon;
+    }
+
+    public void setDueSoon(int dueSoon) {
+        this.dueSoon = dueSoon;
+    }
+
+    public LocalDate getDueSoonAsOf() {
+        return dueSoonAsOf;
+    }
+
+    public void setDueSoonAsOf(LocalDate dueSoonAsOf) {
+        this.dueSoonAsOf = dueSoonAsOf;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
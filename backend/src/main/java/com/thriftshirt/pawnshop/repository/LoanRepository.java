@@ -1,29 +1,84 @@
 package com.thriftshirt.pawnshop.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.thriftshirt.pawnshop.entity.Loan;
+import com.thriftshirt.pawnshop.entity.LoanStatus;
 import com.thriftshirt.pawnshop.entity.User;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
 
     @Query("SELECT SUM(l.loanAmount) FROM Loan l WHERE l.status = :status")
-    BigDecimal sumLoanAmountByStatus(@Param("status") String status);
+    BigDecimal sumLoanAmountByStatus(@Param("status") LoanStatus status);
 
-    long countByStatus(String status);
+    long countByStatus(LoanStatus status);
     
     // Find loans by user and status
     @Query("SELECT l FROM Loan l WHERE l.pawnItem.user = :user AND l.status = :status")
-    List<Loan> findByPawnItemUserAndStatus(@Param("user") User user, @Param("status") String status);
+    List<Loan> findByPawnItemUserAndStatus(@Param("user") User user, @Param("status") LoanStatus status);
     
     // Check if user has any pending loans (loans with ACTIVE status)
-    @Query("SELECT l FROM Loan l WHERE l.pawnItem.user = :user AND l.status = 'ACTIVE'")
+    @Query("SELECT l FROM Loan l WHERE l.pawnItem.user = :user AND l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE")
     List<Loan> findActiveLoansByUser(@Param("user") User user);
+
+    // All loans belonging to a user, with the pawn item fetched in the same query
+    @Query("SELECT l FROM Loan l JOIN FETCH l.pawnItem p WHERE p.user.id = :userId")
+    List<Loan> findByUserIdWithPawnItem(@Param("userId") Long userId);
+
+    // The loan for one of a user's pawn items
+    @Query("SELECT l FROM Loan l JOIN FETCH l.pawnItem p WHERE p.pawnId = :pawnId AND p.user.id = :userId")
+    Optional<Loan> findByUserIdAndPawnId(@Param("userId") Long userId, @Param("pawnId") Long pawnId);
+
+    // Page through loans with a given status, fetching the pawn item and its owner in the same query
+    @Query(value = "SELECT l FROM Loan l JOIN FETCH l.pawnItem p JOIN FETCH p.user WHERE l.status = :status",
+            countQuery = "SELECT COUNT(l) FROM Loan l WHERE l.status = :status")
+    Page<Loan> findPageByStatusWithPawnItemAndUser(@Param("status") LoanStatus status, Pageable pageable);
+
+    // Page through active loans due before the given date, with pawn item and owner
+    @Query(value = "SELECT l FROM Loan l JOIN FETCH l.pawnItem p JOIN FETCH p.user "
+            + "WHERE l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE AND l.dueDate < :today",
+            countQuery = "SELECT COUNT(l) FROM Loan l WHERE l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE AND l.dueDate < :today")
+    Page<Loan> findPageOverdueWithPawnItemAndUser(@Param("today") LocalDate today, Pageable pageable);
+
+    // Next chunk of overdue active loans for the sweeper, keyset-ordered on (dueDate, loanId)
+    @Query("SELECT l FROM Loan l JOIN FETCH l.pawnItem p JOIN FETCH p.user "
+            + "WHERE l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE AND l.dueDate < :today "
+            + "AND (:afterDueDate IS NULL OR l.dueDate > :afterDueDate "
+            + "OR (l.dueDate = :afterDueDate AND l.loanId > :afterLoanId)) "
+            + "ORDER BY l.dueDate ASC, l.loanId ASC")
+    List<Loan> findOverdueChunk(@Param("today") LocalDate today, @Param("afterDueDate") LocalDate afterDueDate,
+            @Param("afterLoanId") Long afterLoanId, Pageable pageable);
+
+    // Per-user count of active loans due within [from, to], as {userId, count} rows
+    @Query("SELECT p.user.id, COUNT(l) FROM Loan l JOIN l.pawnItem p WHERE l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE "
+            + "AND l.dueDate BETWEEN :from AND :to GROUP BY p.user.id")
+    List<Object[]> countDueBetweenGroupedByUser(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Next chunk of active loans due within [from, to] that have not had a reminder yet
+    @Query("SELECT l FROM Loan l JOIN FETCH l.pawnItem p JOIN FETCH p.user WHERE l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE "
+            + "AND l.dueDate BETWEEN :from AND :to AND l.dueReminderSentOn IS NULL AND l.loanId > :afterLoanId "
+            + "ORDER BY l.loanId ASC")
+    List<Loan> findUnremindedDueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("afterLoanId") Long afterLoanId, Pageable pageable);
+
+    // Record that reminders went out for these loans
+    @Modifying
+    @Query("UPDATE Loan l SET l.dueReminderSentOn = :sentOn WHERE l.loanId IN :loanIds")
+    int markDueReminderSent(@Param("loanIds") List<Long> loanIds, @Param("sentOn") LocalDate sentOn);
+
+    // Scalar columns needed to recompute revenue, without hydrating loans or their pawn items
+    @Query("SELECT l.dateRedeemed, l.dueDate, l.loanAmount, l.interestRate, l.penalty FROM Loan l WHERE l.status = :status")
+    List<Object[]> findRevenueColumnsByStatus(@Param("status") LoanStatus status);
 }
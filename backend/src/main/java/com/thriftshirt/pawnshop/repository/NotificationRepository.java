@@ -1,22 +1,70 @@
 package com.thriftshirt.pawnshop.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.thriftshirt.pawnshop.entity.Notification;
-import com.thriftshirt.pawnshop.entity.User;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    // Find all notifications for a specific user, ordered by newest first
-    List<Notification> findByUserOrderByTimestampDesc(User user);
+    // Keyset page of a user's notifications, newest first, strictly older than the cursor (if any)
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId "
+            + "AND (:cursorTs IS NULL OR n.timestamp < :cursorTs "
+            + "OR (n.timestamp = :cursorTs AND n.notifId < :cursorId)) "
+            + "ORDER BY n.timestamp DESC, n.notifId DESC")
+    List<Notification> findFeedPage(@Param("userId") Long userId, @Param("cursorTs") LocalDateTime cursorTs,
+            @Param("cursorId") Long cursorId, Pageable pageable);
+
+    // Delta fetch: a user's notifications created after the given id, oldest first so a limited
+    // page never skips past ones it did not return
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.notifId > :afterId "
+            + "ORDER BY n.notifId ASC")
+    List<Notification> findNewerThan(@Param("userId") Long userId, @Param("afterId") Long afterId,
+            Pageable pageable);
 
     // Count unread notifications for a user
-    long countByUserAndIsReadFalse(User user);
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    long countUnreadByUserId(@Param("userId") Long userId);
+
+    // Mark one notification read only if it is still unread; 1 means this call did it
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.notifId = :notifId AND n.user.id = :userId "
+            + "AND n.isRead = false")
+    int markAsReadIfUnread(@Param("notifId") Long notifId, @Param("userId") Long userId);
+
+    // Whether the notification exists and belongs to the user
+    boolean existsByNotifIdAndUserId(Long notifId, Long userId);
+
+    // Delete one notification only if it is still unread; 1 means this call removed an unread one
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.notifId = :notifId AND n.user.id = :userId AND n.isRead = false")
+    int deleteIfUnread(@Param("notifId") Long notifId, @Param("userId") Long userId);
+
+    // Mark every unread notification of a user as read in one statement
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadByUserId(@Param("userId") Long userId);
+
+    // Delete the given notifications of a user in one statement; ids owned by other users are ignored
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId AND n.notifId IN :notifIds")
+    int deleteByUserIdAndNotifIdIn(@Param("userId") Long userId, @Param("notifIds") List<Long> notifIds);
+
+    // Delete every notification of a user in one statement
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
 
-    // Find unread notifications for a user
-    List<Notification> findByUserAndIsReadFalseOrderByTimestampDesc(User user);
+    // Retention purge: delete notifications older than the cutoff, optionally only read ones
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.timestamp < :cutoff AND (:readOnly = false OR n.isRead = true)")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("readOnly") boolean readOnly);
 }
@@ -2,27 +2,58 @@ package com.thriftshirt.pawnshop.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.thriftshirt.pawnshop.dto.response.PawnRequestResponse;
 import com.thriftshirt.pawnshop.entity.PawnRequest;
+import com.thriftshirt.pawnshop.entity.PawnStatus;
 import com.thriftshirt.pawnshop.entity.User;
 
 @Repository
 public interface PawnRequestRepository extends JpaRepository<PawnRequest, Long> {
+
+    String RESPONSE_PROJECTION = "SELECT new com.thriftshirt.pawnshop.dto.response.PawnRequestResponse("
+            + "p.pawnId, p.itemName, p.brand, p.size, p.condition, p.category, p.description, "
+            + "p.offeredAmount, p.photos, p.status, p.appraisalDate, p.appraisedBy, "
+            + "l.interestRate, l.dueDate, p.createdAt, p.proposedInterestRate, p.proposedLoanDuration) "
+            + "FROM PawnRequest p LEFT JOIN p.loan l ";
+
+    // Response DTOs for every pawn request, with loan terms joined in one statement
+    @Query(RESPONSE_PROJECTION)
+    List<PawnRequestResponse> findAllResponses();
+
+    // Response DTOs for pawn requests with a given status, newest first (range scan on the status/created_at index)
+    @Query(RESPONSE_PROJECTION + "WHERE p.status = :status ORDER BY p.createdAt DESC")
+    List<PawnRequestResponse> findResponsesByStatus(@Param("status") PawnStatus status);
+
+    // Response DTOs for a user's pawn requests
+    @Query(RESPONSE_PROJECTION + "WHERE p.user.id = :userId")
+    List<PawnRequestResponse> findResponsesByUserId(@Param("userId") Long userId);
     
     // Find all pawn requests by a specific user
     List<PawnRequest> findByUser(User user);
     
     // Find pawn requests by user and status
-    List<PawnRequest> findByUserAndStatus(User user, String status);
+    List<PawnRequest> findByUserAndStatus(User user, PawnStatus status);
     
     // Find all pending pawn requests
-    List<PawnRequest> findByStatus(String status);
+    List<PawnRequest> findByStatus(PawnStatus status);
     
     // Check if user has pending pawn requests that could become loans
-    @Query("SELECT p FROM PawnRequest p WHERE p.user = :user AND p.status IN ('PENDING', 'APPROVED')")
+    @Query("SELECT p FROM PawnRequest p WHERE p.user = :user AND p.status IN (com.thriftshirt.pawnshop.entity.PawnStatus.PENDING, com.thriftshirt.pawnshop.entity.PawnStatus.APPROVED)")
     List<PawnRequest> findPendingOrApprovedByUser(@Param("user") User user);
+
+    // Next batch of requests that still hold inline (data:) photos, in id order
+    @Query("SELECT p.pawnId, p.photos FROM PawnRequest p WHERE p.pawnId > :afterId AND p.photos LIKE '%data:%' ORDER BY p.pawnId")
+    List<Object[]> findInlinePhotoBatch(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Replace the photos value of a single request
+    @Modifying
+    @Query("UPDATE PawnRequest p SET p.photos = :photos WHERE p.pawnId = :pawnId")
+    int updatePhotos(@Param("pawnId") Long pawnId, @Param("photos") String photos);
 }
@@ -0,0 +1,40 @@
+package com.thriftshirt.pawnshop.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.thriftshirt.pawnshop.entity.RevenueLedger;
+
+@Repository
+public interface RevenueLedgerRepository extends JpaRepository<RevenueLedger, Long> {
+
+    // Add one redemption to a day/branch bucket, creating it if needed, in a single atomic upsert
+    // (native: relies on uk_revenue_ledger_date_branch; a racing first redemption of the day just adds)
+    @Modifying
+    @Query(value = "INSERT INTO revenue_ledger (revenue_date, branch_code, total_revenue, redemption_count, updated_at) "
+            + "VALUES (:date, :branch, :amount, 1, :now) "
+            + "ON DUPLICATE KEY UPDATE total_revenue = total_revenue + :amount, "
+            + "redemption_count = redemption_count + 1, updated_at = :now", nativeQuery = true)
+    int addToBucket(@Param("date") LocalDate date, @Param("branch") String branch,
+            @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    // Total revenue across all days and branches
+    @Query("SELECT COALESCE(SUM(r.totalRevenue), 0) FROM RevenueLedger r")
+    BigDecimal sumTotalRevenue();
+
+    // Total revenue for one branch
+    @Query("SELECT COALESCE(SUM(r.totalRevenue), 0) FROM RevenueLedger r WHERE r.branchCode = :branch")
+    BigDecimal sumTotalRevenueByBranch(@Param("branch") String branch);
+
+    // Remove every bucket (used before a rebuild)
+    @Modifying
+    @Query("DELETE FROM RevenueLedger r")
+    int deleteAllBuckets();
+}
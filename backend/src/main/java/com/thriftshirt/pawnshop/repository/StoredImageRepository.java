@@ -0,0 +1,38 @@
+package com.thriftshirt.pawnshop.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.thriftshirt.pawnshop.entity.StoredImage;
+
+@Repository
+public interface StoredImageRepository extends JpaRepository<StoredImage, String> {
+
+    // Restart the grace period of an image that was uploaded again
+    @Modifying
+    @Query("UPDATE StoredImage s SET s.lastUploadedAt = :now WHERE s.contentHash = :contentHash")
+    int touch(@Param("contentHash") String contentHash, @Param("now") LocalDateTime now);
+
+    // Add to (or, with a negative delta, subtract from) an image's reference count, never below zero
+    @Modifying
+    @Query("UPDATE StoredImage s SET s.refCount = CASE WHEN s.refCount + :delta < 0 THEN 0 "
+            + "ELSE s.refCount + :delta END WHERE s.storedValue = :storedValue")
+    int adjustRefCount(@Param("storedValue") String storedValue, @Param("delta") int delta);
+
+    // Next batch of unpinned images nobody references that have not been uploaded since the cutoff
+    @Query("SELECT s FROM StoredImage s WHERE s.refCount = 0 AND s.pinned = false AND s.lastUploadedAt < :cutoff")
+    List<StoredImage> findUnreferencedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Delete an image row only if it is still unpinned, unreferenced and outside the grace period
+    @Modifying
+    @Query("DELETE FROM StoredImage s WHERE s.contentHash = :contentHash AND s.refCount = 0 "
+            + "AND s.pinned = false AND s.lastUploadedAt < :cutoff")
+    int deleteIfUnreferenced(@Param("contentHash") String contentHash, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,25 @@
+package com.thriftshirt.pawnshop.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.thriftshirt.pawnshop.entity.StreamTicket;
+
+@Repository
+public interface StreamTicketRepository extends JpaRepository<StreamTicket, String> {
+
+    // Consume a ticket if it has not expired; 1 means this call redeemed it
+    @Modifying
+    @Query("DELETE FROM StreamTicket t WHERE t.ticketHash = :ticketHash AND t.expiresAt > :now")
+    int redeem(@Param("ticketHash") String ticketHash, @Param("now") LocalDateTime now);
+
+    // Remove tickets that were never redeemed
+    @Modifying
+    @Query("DELETE FROM StreamTicket t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
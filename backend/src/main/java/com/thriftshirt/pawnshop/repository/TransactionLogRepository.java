@@ -1,7 +1,9 @@
 package com.thriftshirt.pawnshop.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -15,6 +17,20 @@ public interface TransactionLogRepository extends JpaRepository<TransactionLog,
     // Fetch logs ordered by timestamp descending (newest first)
     List<TransactionLog> findAllByOrderByTimestampDesc();
     
+    // Keyset page of logs, newest first, on (timestamp, logId) with optional filters
+    @Query("SELECT t FROM TransactionLog t LEFT JOIN FETCH t.user u WHERE "
+            + "(:action IS NULL OR t.action = :action) "
+            + "AND (:userId IS NULL OR u.id = :userId) "
+            + "AND (:fromTs IS NULL OR t.timestamp >= :fromTs) "
+            + "AND (:toTs IS NULL OR t.timestamp < :toTs) "
+            + "AND (:cursorTs IS NULL OR t.timestamp < :cursorTs "
+            + "     OR (t.timestamp = :cursorTs AND t.logId < :cursorId)) "
+            + "ORDER BY t.timestamp DESC, t.logId DESC")
+    List<TransactionLog> findPageBefore(@Param("action") String action, @Param("userId") Long userId,
+            @Param("fromTs") LocalDateTime from, @Param("toTs") LocalDateTime to,
+            @Param("cursorTs") LocalDateTime cursorTimestamp, @Param("cursorId") Long cursorId,
+            Pageable limit);
+
     // Fetch user-specific logs ordered by timestamp descending
     @Query("SELECT t FROM TransactionLog t WHERE t.user.id = :userId ORDER BY t.timestamp DESC")
     List<TransactionLog> findByUserIdOrderByTimestampDesc(@Param("userId") Long userId);
@@ -23,7 +39,20 @@ public interface TransactionLogRepository extends JpaRepository<TransactionLog,
     @Query("SELECT t FROM TransactionLog t WHERE t.logId = :logId AND t.user.id = :userId")
     java.util.Optional<TransactionLog> findByLogIdAndUserId(@Param("logId") Long logId, @Param("userId") Long userId);
     
+    // Photos of every log of a user that holds any, so their image references can be released
+    @Query("SELECT t.photos FROM TransactionLog t WHERE t.user.id = :userId AND t.photos IS NOT NULL")
+    List<String> findPhotosByUserId(@Param("userId") Long userId);
+
     // Delete all transaction logs for a specific user
     @Modifying
     void deleteByUserId(Long userId);
+
+    // Next batch of logs that still hold inline (data:) photos, in id order
+    @Query("SELECT t.logId, t.photos FROM TransactionLog t WHERE t.logId > :afterId AND t.photos LIKE '%data:%' ORDER BY t.logId")
+    List<Object[]> findInlinePhotoBatch(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Replace the photos value of a single log
+    @Modifying
+    @Query("UPDATE TransactionLog t SET t.photos = :photos WHERE t.logId = :logId")
+    int updatePhotos(@Param("logId") Long logId, @Param("photos") String photos);
 }
@@ -0,0 +1,90 @@
+package com.thriftshirt.pawnshop.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.thriftshirt.pawnshop.entity.UserDashboardCounters;
+
+@Repository
+public interface UserDashboardCountersRepository extends JpaRepository<UserDashboardCounters, Long> {
+
+    // Create an unseeded row for a user unless one exists (native upsert, safe when two first reads race)
+    @Modifying
+    @Query(value = "INSERT INTO user_dashboard_counters (user_id, seeded, active_pawns, outstanding_principal, "
+            + "unread_notifications, due_soon, updated_at) VALUES (:userId, false, 0, 0, 0, 0, :now) "
+            + "ON DUPLICATE KEY UPDATE user_id = user_id", nativeQuery = true)
+    int insertIfMissing(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Recount every counter of the given rows from the source tables and mark them seeded, in one statement,
+    // so no adjustment committed in between is lost
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserDashboardCounters c SET "
+            + "c.activePawns = (SELECT COUNT(l) FROM Loan l WHERE l.pawnItem.user.id = c.userId "
+            + "AND l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE), "
+            + "c.outstandingPrincipal = (SELECT COALESCE(SUM(l.loanAmount), 0) FROM Loan l "
+            + "WHERE l.pawnItem.user.id = c.userId AND l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE), "
+            + "c.unreadNotifications = (SELECT COUNT(n) FROM Notification n WHERE n.user.id = c.userId "
+            + "AND n.isRead = false), "
+            + "c.dueSoon = (SELECT COUNT(l) FROM Loan l WHERE l.pawnItem.user.id = c.userId "
+            + "AND l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE AND l.dueDate BETWEEN :today AND :dueSoonEnd), "
+            + "c.dueSoonAsOf = :today, c.seeded = true, c.updatedAt = :now WHERE c.userId IN :userIds")
+    int recount(@Param("userIds") Collection<Long> userIds, @Param("today") LocalDate today,
+            @Param("dueSoonEnd") LocalDate dueSoonEnd, @Param("now") LocalDateTime now);
+
+    // Recount a user's due-soon loans for a new day in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserDashboardCounters c SET c.dueSoon = (SELECT COUNT(l) FROM Loan l "
+            + "WHERE l.pawnItem.user.id = c.userId AND l.status = com.thriftshirt.pawnshop.entity.LoanStatus.ACTIVE "
+            + "AND l.dueDate BETWEEN :today AND :dueSoonEnd), c.dueSoonAsOf = :today, c.updatedAt = :now "
+            + "WHERE c.userId = :userId")
+    int recountDueSoon(@Param("userId") Long userId, @Param("today") LocalDate today,
+            @Param("dueSoonEnd") LocalDate dueSoonEnd, @Param("now") LocalDateTime now);
+
+    // Next chunk of user ids that have a counters row, in id order
+    @Query("SELECT c.userId FROM UserDashboardCounters c WHERE c.userId > :afterId ORDER BY c.userId")
+    List<Long> findUserIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Adjust a due-soon count in place, only if it was computed for the given day
+    @Modifying
+    @Query("UPDATE UserDashboardCounters c SET c.dueSoon = c.dueSoon + :delta, c.updatedAt = :now "
+            + "WHERE c.userId = :userId AND c.dueSoonAsOf = :asOf")
+    int adjustDueSoon(@Param("userId") Long userId, @Param("delta") int delta, @Param("asOf") LocalDate asOf,
+            @Param("now") LocalDateTime now);
+
+    // Apply a loan opening or closing to a seeded row
+    @Modifying
+    @Query("UPDATE UserDashboardCounters c SET c.activePawns = c.activePawns + :pawnDelta, "
+            + "c.outstandingPrincipal = c.outstandingPrincipal + :principalDelta, c.updatedAt = :now "
+            + "WHERE c.userId = :userId AND c.seeded = true")
+    int adjustLoanTotals(@Param("userId") Long userId, @Param("pawnDelta") int pawnDelta,
+            @Param("principalDelta") BigDecimal principalDelta, @Param("now") LocalDateTime now);
+
+    // Add to the unread count of several seeded rows at once
+    @Modifying
+    @Query("UPDATE UserDashboardCounters c SET c.unreadNotifications = c.unreadNotifications + :delta, "
+            + "c.updatedAt = :now WHERE c.userId IN :userIds AND c.seeded = true")
+    int adjustUnread(@Param("userIds") Collection<Long> userIds, @Param("delta") int delta,
+            @Param("now") LocalDateTime now);
+
+    // Recount a user's unread notifications in one statement, e.g. after mark-all-read or a bulk delete
+    @Modifying
+    @Query("UPDATE UserDashboardCounters c SET c.unreadNotifications = (SELECT COUNT(n) FROM Notification n "
+            + "WHERE n.user.id = c.userId AND n.isRead = false), c.updatedAt = :now "
+            + "WHERE c.userId = :userId AND c.seeded = true")
+    int recountUnread(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Force every row to be recounted on its next read
+    @Modifying
+    @Query("UPDATE UserDashboardCounters c SET c.seeded = false")
+    int unseedAll();
+}
@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.thriftshirt.pawnshop.entity.User;
@@ -90,4 +92,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return a list of the top 5 most recently created users
      */
     List<User> findTop5ByOrderByCreatedAtDesc();
+
+    /**
+     * Finds the ids of all enabled users with the given role.
+     * 
+     * @param role the role to select users by
+     * @return the ids of the enabled users with the given role
+     */
+    @Query("SELECT u.id FROM User u WHERE u.role = :role AND u.enabled = true")
+    List<Long> findEnabledIdsByRole(@Param("role") Role role);
 }
\ No newline at end of file
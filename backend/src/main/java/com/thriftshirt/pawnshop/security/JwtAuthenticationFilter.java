@@ -8,11 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.thriftshirt.pawnshop.service.StreamTicketService;
+import com.thriftshirt.pawnshop.service.UserDetailsServiceImpl;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,7 +28,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
     
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserDetailsServiceImpl userDetailsService;
+    
+    @Autowired
+    private StreamTicketService streamTicketService;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -34,10 +39,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            JwtClaims claims = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : null;
+            String username = claims != null ? claims.getUsername() : getStreamTicketUser(request);
+            if (username != null) {
+                UserDetails userDetails = userDetailsService.loadAuthenticatedPrincipal(username);
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -58,4 +63,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+    
+    // Browser EventSource cannot set headers, so the notification stream takes a single-use ticket instead
+    private String getStreamTicketUser(HttpServletRequest request) {
+        String ticket = request.getParameter("ticket");
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!"/notifications/stream".equals(path) || !StringUtils.hasText(ticket)) {
+            return null;
+        }
+        return streamTicketService.redeem(ticket).orElse(null);
+    }
 }
\ No newline at end of file
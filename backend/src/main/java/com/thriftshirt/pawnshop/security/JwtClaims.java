@@ -0,0 +1,35 @@
+package com.thriftshirt.pawnshop.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of the claims carried by a verified JWT.
+ */
+public final class JwtClaims {
+
+    private final String username;
+    private final String sessionId;
+    private final Instant expiresAt;
+
+    public JwtClaims(String username, String sessionId, Instant expiresAt) {
+        this.username = username;
+        this.sessionId = sessionId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -1,6 +1,13 @@
 package com.thriftshirt.pawnshop.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.SecretKey;
 
@@ -13,10 +20,13 @@ import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtTokenProvider {
@@ -29,8 +39,24 @@ public class JwtTokenProvider {
     @Value("${app.jwt.expiration}")
     private int jwtExpirationInMs;
 
+    @Value("${app.jwt.cache-size:10000}")
+    private int claimsCacheSize;
+
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    // Verified claims keyed by SHA-256 of the token; entries are dropped once the token expires
+    private final Map<String, JwtClaims> claimsCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(Authentication authentication) {
@@ -71,38 +97,40 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verify a token and extract its claims in a single pass.
+     * Returns null when the token is invalid or expired.
+     */
+    public JwtClaims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            logger.error("JWT claims string is empty");
+            return null;
+        }
 
-        return claims.getSubject();
-    }
+        Instant now = Instant.now();
+        String cacheKey = hashToken(token);
 
-    public String getSessionIdFromToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return claims.get("sessionId", String.class);
-        } catch (Exception e) {
-            logger.error("Error extracting session ID from token: {}", e.getMessage());
+        JwtClaims cached = claimsCache.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            claimsCache.remove(cacheKey);
+            logger.error("Expired JWT token");
             return null;
         }
-    }
 
-    public boolean validateToken(String authToken) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Date expiration = claims.getExpiration();
+            JwtClaims parsed = new JwtClaims(
+                    claims.getSubject(),
+                    claims.get("sessionId", String.class),
+                    expiration != null ? expiration.toInstant() : null);
+            cacheClaims(cacheKey, parsed, now);
+            return parsed;
+        } catch (SignatureException ex) {
+            logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -112,6 +140,42 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+    public String getUsernameFromToken(String token) {
+        JwtClaims claims = parseToken(token);
+        return claims != null ? claims.getUsername() : null;
+    }
+
+    public String getSessionIdFromToken(String token) {
+        JwtClaims claims = parseToken(token);
+        return claims != null ? claims.getSessionId() : null;
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseToken(authToken) != null;
+    }
+
+    private void cacheClaims(String cacheKey, JwtClaims claims, Instant now) {
+        if (claims.getExpiresAt() == null) {
+            return; // Never cache tokens without an expiry
+        }
+        if (claimsCache.size() >= claimsCacheSize) {
+            claimsCache.values().removeIf(entry -> entry.isExpired(now));
+            if (claimsCache.size() >= claimsCacheSize) {
+                claimsCache.clear();
+            }
+        }
+        claimsCache.put(cacheKey, claims);
+    }
+
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
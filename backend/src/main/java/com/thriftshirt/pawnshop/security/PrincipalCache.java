@@ -0,0 +1,94 @@
+package com.thriftshirt.pawnshop.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.thriftshirt.pawnshop.entity.User;
+
+/**
+ * Short-lived cache of authenticated principals keyed by username, so that
+ * steady-state requests do not reload the user on every call. Entries are
+ * immutable snapshots and each request gets its own User built from one.
+ * Invalidation only reaches this node, so the TTL bounds how long another
+ * node can keep serving a changed role or a disabled account.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    @Value("${app.security.principal-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, CachedPrincipal> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Return the cached principal for a username, loading it on a miss or after expiry
+     */
+    public User getOrLoad(String username, Function<String, User> loader) {
+        long now = System.nanoTime();
+
+        CachedPrincipal cached = cache.get(username);
+        if (cached != null && now - cached.expiresAt < 0) {
+            return cached.principal.toUser();
+        }
+
+        PrincipalSnapshot principal = PrincipalSnapshot.of(loader.apply(username));
+        if (cache.size() >= maxSize) {
+            cache.values().removeIf(entry -> now - entry.expiresAt >= 0);
+            if (cache.size() >= maxSize) {
+                cache.clear();
+            }
+        }
+        cache.put(username, new CachedPrincipal(principal, now + ttlSeconds * 1_000_000_000L));
+        return principal.toUser();
+    }
+
+    /**
+     * Drop a user's principal. When called inside a transaction the entry is
+     * dropped again after commit, so a concurrent reload cannot re-cache stale state.
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(username);
+                }
+            });
+        }
+        logger.debug("Principal cache invalidated for user: {}", username);
+    }
+
+    /**
+     * Drop every cached principal
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    private static final class CachedPrincipal {
+        private final PrincipalSnapshot principal;
+        private final long expiresAt;
+
+        private CachedPrincipal(PrincipalSnapshot principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
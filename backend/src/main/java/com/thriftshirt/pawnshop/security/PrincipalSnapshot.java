@@ -0,0 +1,50 @@
+package com.thriftshirt.pawnshop.security;
+
+import com.thriftshirt.pawnshop.entity.Role;
+import com.thriftshirt.pawnshop.entity.User;
+
+/**
+ * Immutable copy of the user fields an authenticated request needs. This is what
+ * PrincipalCache holds, instead of a managed entity with lazy collections and a
+ * password hash.
+ */
+public final class PrincipalSnapshot {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final Role role;
+    private final boolean enabled;
+
+    private PrincipalSnapshot(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.role = user.getRole();
+        this.enabled = user.isEnabled();
+    }
+
+    public static PrincipalSnapshot of(User user) {
+        return new PrincipalSnapshot(user);
+    }
+
+    /**
+     * Build a fresh, unmanaged User for one request's security context. It has no
+     * password or relationships, so it must not be saved or merged.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setRole(role);
+        user.setEnabled(enabled);
+        return user;
+    }
+}
@@ -0,0 +1,151 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.thriftshirt.pawnshop.dto.response.AdminStatsSnapshot;
+import com.thriftshirt.pawnshop.entity.LoanStatus;
+import com.thriftshirt.pawnshop.repository.LoanRepository;
+import com.thriftshirt.pawnshop.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process snapshot of the admin dashboard stats. Readers always get the
+ * current snapshot immediately; a single background thread recomputes it when
+ * it is older than the refresh interval or after a user or loan change, so
+ * concurrent dashboard loads never hit the database together.
+ */
+@Service
+public class AdminStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminStatsService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private RevenueLedgerService revenueLedgerService;
+
+    @Value("${app.admin.stats.refresh-ms:30000}")
+    private long refreshMs;
+
+    // Stop background refreshes once nobody has looked at the stats for this long
+    @Value("${app.admin.stats.idle-ms:300000}")
+    private long idleMs;
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "admin-stats-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    private final Object initLock = new Object();
+
+    private volatile AdminStatsSnapshot snapshot;
+
+    private volatile boolean dirty;
+
+    private volatile long lastReadAt;
+
+    /**
+     * Current stats; computed inline only for the very first caller, everyone else gets the cached copy
+     */
+    public AdminStatsSnapshot getSnapshot() {
+        lastReadAt = System.currentTimeMillis();
+        AdminStatsSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (initLock) {
+                if (snapshot == null) {
+                    snapshot = compute();
+                }
+                return snapshot;
+            }
+        }
+        if (dirty || Duration.between(current.getAsOf(), LocalDateTime.now()).toMillis() >= refreshMs) {
+            requestRefresh();
+        }
+        return current;
+    }
+
+    /**
+     * Mark the snapshot out of date once the current transaction (if any) commits
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markDirty();
+                }
+            });
+        } else {
+            markDirty();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.admin.stats.refresh-ms:30000}")
+    public void scheduledRefresh() {
+        if (snapshot != null && System.currentTimeMillis() - lastReadAt < idleMs) {
+            requestRefresh();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void markDirty() {
+        dirty = true;
+        if (snapshot != null) {
+            requestRefresh();
+        }
+    }
+
+    /**
+     * Queue at most one refresh at a time; requests that arrive while one is queued are folded into it
+     */
+    private void requestRefresh() {
+        if (!refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                dirty = false;
+                snapshot = compute();
+            } catch (Exception e) {
+                dirty = true;
+                logger.error("Failed to refresh admin stats: {}", e.getMessage(), e);
+            } finally {
+                refreshQueued.set(false);
+            }
+        });
+    }
+
+    private AdminStatsSnapshot compute() {
+        LocalDateTime asOf = LocalDateTime.now();
+        return new AdminStatsSnapshot(
+                userRepository.count(),
+                loanRepository.countByStatus(LoanStatus.ACTIVE),
+                revenueLedgerService.getTotalRevenue(),
+                asOf);
+    }
+}
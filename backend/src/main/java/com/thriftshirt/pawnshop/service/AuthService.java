@@ -24,6 +24,7 @@ import com.thriftshirt.pawnshop.exception.BadRequestException;
 import com.thriftshirt.pawnshop.exception.ResourceNotFoundException;
 import com.thriftshirt.pawnshop.repository.UserRepository;
 import com.thriftshirt.pawnshop.security.JwtTokenProvider;
+import com.thriftshirt.pawnshop.security.PrincipalCache;
 
 @Service
 public class AuthService {
@@ -42,6 +43,15 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private StoredImageService storedImageService;
+
     public AuthResponse loginUser(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -80,6 +90,7 @@ public class AuthService {
         user.setActiveSessionId(sessionId);
         user.setSessionCreatedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
 
         String jwt = tokenProvider.generateTokenWithSessionId(authentication, sessionId);
 
@@ -124,6 +135,7 @@ public class AuthService {
         user.setActiveSessionId(sessionId);
         user.setSessionCreatedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
 
         String jwt = tokenProvider.generateTokenWithSessionId(authentication, sessionId);
 
@@ -152,6 +164,7 @@ public class AuthService {
         user.setAddress(registerRequest.getAddress());
 
         User savedUser = userRepository.save(user);
+        adminStatsService.invalidate();
 
         // Return response without JWT token (user must login separately)
         return new AuthResponse(null, savedUser.getUsername(), savedUser.getEmail(), savedUser.getRole().name());
@@ -181,6 +194,7 @@ public class AuthService {
         // Update password
         user.setPassword(passwordEncoder.encode(changePasswordRequest.getNewPassword()));
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
     }
 
     public UserProfileResponse updateProfile(String username, UserProfileResponse profileRequest) {
@@ -200,11 +214,15 @@ public class AuthService {
         if (profileRequest.getAddress() != null) {
             user.setAddress(profileRequest.getAddress());
         }
-        if (profileRequest.getProfileImage() != null) {
+        if (profileRequest.getProfileImage() != null
+                && !profileRequest.getProfileImage().equals(user.getProfileImage())) {
+            storedImageService.release(user.getProfileImage());
+            storedImageService.acquire(profileRequest.getProfileImage());
             user.setProfileImage(profileRequest.getProfileImage());
         }
 
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getUsername());
         return new UserProfileResponse(updatedUser);
     }
 
@@ -244,6 +262,7 @@ public class AuthService {
 
                 // Force save and flush to database
                 User savedUser = userRepository.saveAndFlush(user);
+                principalCache.invalidate(username);
 
                 System.out.println("Logout completed for user: " + username +
                         ", Session cleared: " + (savedUser.getActiveSessionId() == null) +
@@ -271,6 +290,7 @@ public class AuthService {
                 user.setActiveSessionId(null);
                 user.setSessionCreatedAt(null);
                 userRepository.save(user);
+                principalCache.invalidate(user.getUsername());
             }
         } catch (Exception e) {
             System.err.println("Error clearing expired sessions: " + e.getMessage());
@@ -0,0 +1,160 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.thriftshirt.pawnshop.entity.Loan;
+import com.thriftshirt.pawnshop.entity.UserDashboardCounters;
+import com.thriftshirt.pawnshop.repository.LoanRepository;
+import com.thriftshirt.pawnshop.repository.UserDashboardCountersRepository;
+
+/**
+ * Maintains the precomputed per-user dashboard counters. A row is counted from
+ * the source tables the first time it is read and adjusted in place afterwards;
+ * the daily job recounts every row so any drift is corrected.
+ */
+@Service
+@Transactional
+public class DashboardCounterService {
+
+    @Autowired
+    private UserDashboardCountersRepository countersRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Value("${app.loans.due-soon.days:3}")
+    private int dueSoonDays;
+
+    public int getDueSoonDays() {
+        return dueSoonDays;
+    }
+
+    /**
+     * The user's counters; a primary-key read unless the row is new or its due-soon count is from an earlier day
+     */
+    public UserDashboardCounters getCounters(Long userId) {
+        LocalDate today = LocalDate.now();
+        UserDashboardCounters counters = countersRepository.findById(userId).orElse(null);
+        if (counters == null || !counters.isSeeded()) {
+            seed(List.of(userId), counters == null, today);
+        } else if (!today.equals(counters.getDueSoonAsOf())) {
+            countersRepository.recountDueSoon(userId, today, today.plusDays(dueSoonDays), LocalDateTime.now());
+        } else {
+            return counters;
+        }
+        return countersRepository.findById(userId)
+                .orElseThrow(() -> new IllegalStateException("Dashboard counters missing for user " + userId));
+    }
+
+    /**
+     * Create rows for users with loans due soon that have none yet, so their due-soon count is
+     * precomputed; returns the number of users with loans due soon
+     */
+    public int seedDueSoonUsers() {
+        LocalDate today = LocalDate.now();
+        List<Long> userIds = loanRepository.countDueBetweenGroupedByUser(today, today.plusDays(dueSoonDays))
+                .stream().map(row -> (Long) row[0]).toList();
+        if (!userIds.isEmpty()) {
+            seed(userIds, true, today);
+        }
+        return userIds.size();
+    }
+
+    /**
+     * Recount every counter of the next chunk of rows after the given user id; returns the last
+     * user id recounted, or null when there are no more rows
+     */
+    public Long recountChunk(Long afterUserId, int chunkSize) {
+        List<Long> userIds = countersRepository.findUserIdsAfter(afterUserId, PageRequest.of(0, chunkSize));
+        if (userIds.isEmpty()) {
+            return null;
+        }
+        LocalDate today = LocalDate.now();
+        countersRepository.recount(userIds, today, today.plusDays(dueSoonDays), LocalDateTime.now());
+        return userIds.get(userIds.size() - 1);
+    }
+
+    /**
+     * A loan became active
+     */
+    public void onLoanOpened(Loan loan) {
+        adjustLoan(loan, 1);
+    }
+
+    /**
+     * A loan was redeemed or forfeited
+     */
+    public void onLoanClosed(Loan loan) {
+        adjustLoan(loan, -1);
+    }
+
+    /**
+     * Notifications were created, given as number of new notifications per user
+     */
+    public void onNotificationsCreated(Map<Long, Integer> countsByUser) {
+        Map<Integer, List<Long>> usersByCount = countsByUser.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        usersByCount.forEach((count, userIds) -> adjustUnread(userIds, count));
+    }
+
+    /**
+     * One unread notification was read or deleted
+     */
+    public void onNotificationRead(Long userId) {
+        adjustUnread(List.of(userId), -1);
+    }
+
+    /**
+     * Recount a user's unread notifications after a change that does not report what it touched
+     */
+    public void refreshUnread(Long userId) {
+        countersRepository.recountUnread(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Recount every row on its next read, e.g. after a purge across all users
+     */
+    public void invalidateAll() {
+        countersRepository.unseedAll();
+    }
+
+    private void adjustLoan(Loan loan, int delta) {
+        Long userId = loan.getPawnItem().getUser().getId();
+        BigDecimal principal = loan.getLoanAmount() != null ? loan.getLoanAmount() : BigDecimal.ZERO;
+        LocalDateTime now = LocalDateTime.now();
+        // An unseeded or missing row is counted on its next read, so there is nothing to adjust
+        countersRepository.adjustLoanTotals(userId, delta, principal.multiply(BigDecimal.valueOf(delta)), now);
+
+        LocalDate today = LocalDate.now();
+        LocalDate dueDate = loan.getDueDate();
+        if (dueDate != null && !dueDate.isBefore(today) && !dueDate.isAfter(today.plusDays(dueSoonDays))) {
+            countersRepository.adjustDueSoon(userId, delta, today, now);
+        }
+    }
+
+    private void adjustUnread(Collection<Long> userIds, int delta) {
+        countersRepository.adjustUnread(userIds, delta, LocalDateTime.now());
+    }
+
+    // Counting and flipping seeded happen in one statement, so adjustments skipped while unseeded are counted
+    private void seed(List<Long> userIds, boolean createRows, LocalDate today) {
+        LocalDateTime now = LocalDateTime.now();
+        if (createRows) {
+            userIds.forEach(userId -> countersRepository.insertIfMissing(userId, now));
+        }
+        countersRepository.recount(userIds, today, today.plusDays(dueSoonDays), now);
+    }
+}
@@ -25,6 +25,18 @@ public class DataInitializationService implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private RevenueLedgerService revenueLedgerService;
+    
+    @Autowired
+    private PhotoMigrationService photoMigrationService;
+    
+    @Autowired
+    private LegacyStatusMigrationService legacyStatusMigrationService;
+    
+    @Value("${app.photos.migrate-on-startup:false}")
+    private boolean migratePhotosOnStartup;
+    
     // Configurable admin credentials from application.properties
     @Value("${app.admin.username}")
     private String defaultAdminUsername;
@@ -44,6 +56,35 @@ public class DataInitializationService implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         createDefaultAdmin();
+        migrateLegacyStatuses();
+        seedRevenueLedger();
+        if (migratePhotosOnStartup) {
+            migrateInlinePhotos();
+        }
+    }
+    
+    private void migrateInlinePhotos() {
+        try {
+            photoMigrationService.migrateInlinePhotos();
+        } catch (Exception e) {
+            logger.error("Error migrating inline photos: {}", e.getMessage(), e);
+        }
+    }
+    
+    private void migrateLegacyStatuses() {
+        try {
+            legacyStatusMigrationService.migrateLegacyStatuses();
+        } catch (Exception e) {
+            logger.error("Error migrating legacy statuses: {}", e.getMessage(), e);
+        }
+    }
+    
+    private void seedRevenueLedger() {
+        try {
+            revenueLedgerService.rebuildIfEmpty();
+        } catch (Exception e) {
+            logger.error("Error seeding revenue ledger: {}", e.getMessage(), e);
+        }
     }
     
     private void createDefaultAdmin() {
@@ -0,0 +1,133 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.thriftshirt.pawnshop.entity.Loan;
+import com.thriftshirt.pawnshop.entity.Notification;
+import com.thriftshirt.pawnshop.entity.PawnRequest;
+import com.thriftshirt.pawnshop.repository.LoanRepository;
+
+/**
+ * Daily job that reminds users once when a loan enters the due-soon window and
+ * recounts the stored dashboard counters (due-soon, unread, active pawns and
+ * principal) so any drift from missed adjustments is corrected.
+ */
+@Component
+public class DueSoonReminderJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(DueSoonReminderJob.class);
+
+    private static final String LEASE_NAME = "due-soon-reminders";
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.loans.due-soon.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.loans.due-soon.chunk-size:200}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${app.loans.due-soon.cron:0 0 7 * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (Exception e) {
+            logger.error("Due-soon reminder job failed: ", e);
+        }
+    }
+
+    /**
+     * Send pending reminders and recount; returns how many reminders went out and how many users have loans due soon
+     */
+    public Map<String, Integer> run() {
+        if (!schedulerLeaseService.tryAcquire(LEASE_NAME, Duration.ofMinutes(15))) {
+            return Map.of("reminded", 0, "usersDueSoon", 0);
+        }
+
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            LocalDate today = LocalDate.now();
+            LocalDate windowEnd = today.plusDays(dashboardCounterService.getDueSoonDays());
+
+            int reminded = 0;
+            long afterLoanId = 0L;
+            while (true) {
+                final long cursor = afterLoanId;
+                List<Long> sent = tx.execute(status -> remindChunk(today, windowEnd, cursor));
+                if (sent == null || sent.isEmpty()) {
+                    break;
+                }
+                reminded += sent.size();
+                afterLoanId = sent.get(sent.size() - 1);
+            }
+
+            Integer usersDueSoon = tx.execute(status -> dashboardCounterService.seedDueSoonUsers());
+            int recounted = 0;
+            Long afterUserId = 0L;
+            while (afterUserId != null) {
+                final Long cursor = afterUserId;
+                afterUserId = tx.execute(status -> dashboardCounterService.recountChunk(cursor, chunkSize));
+                if (afterUserId != null) {
+                    recounted++;
+                }
+            }
+            logger.info("✅ Due-soon reminders sent: {}, users with loans due soon: {}, counter chunks recounted: {}",
+                    reminded, usersDueSoon, recounted);
+            return Map.of("reminded", reminded, "usersDueSoon", usersDueSoon != null ? usersDueSoon : 0);
+        } finally {
+            schedulerLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    private List<Long> remindChunk(LocalDate today, LocalDate windowEnd, long afterLoanId) {
+        List<Loan> loans = loanRepository.findUnremindedDueBetween(today, windowEnd, afterLoanId,
+                PageRequest.of(0, chunkSize));
+
+        List<Long> loanIds = new ArrayList<>(loans.size());
+        List<Notification> notifications = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            PawnRequest pawn = loan.getPawnItem();
+            loanIds.add(loan.getLoanId());
+            notifications.add(notificationService.newNotification(pawn.getUser(),
+                    "Reminder: your loan for " + pawn.getItemName() + " is due on " + loan.getDueDate()
+                            + ". Redeem it by then to avoid penalties.",
+                    "WARNING"));
+        }
+
+        if (!loanIds.isEmpty()) {
+            notificationService.createNotifications(notifications);
+            loanRepository.markDueReminderSent(loanIds, today);
+        }
+        return loanIds;
+    }
+}
@@ -0,0 +1,132 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.thriftshirt.pawnshop.entity.LoanStatus;
+import com.thriftshirt.pawnshop.entity.PawnStatus;
+
+/**
+ * Copies statuses from the legacy varchar "status" columns of pawn_request and loan
+ * into the one-byte status_code columns. Only touches rows whose code is still unset,
+ * so it is safe to run on every start; rows with values no enum knows are logged.
+ * Dropping the legacy column (and on loan its old status/due_date index) cannot be
+ * undone, so it only happens when app.migrations.drop-legacy-status is set and every
+ * row of the table is mapped. On a fresh schema, or after the drop, the legacy column
+ * does not exist and there is nothing to do.
+ */
+@Service
+public class LegacyStatusMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyStatusMigrationService.class);
+
+    // Vendor error codes for a missing column or index: MySQL 1054/1091, H2 42122/42112
+    private static final Set<Integer> MISSING_OBJECT_ERRORS = Set.of(1054, 1091, 42122, 42112);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.migrations.drop-legacy-status:false}")
+    private boolean dropLegacyStatus;
+
+    /**
+     * Backfill status codes; returns the number of rows updated per table
+     */
+    public Map<String, Integer> migrateLegacyStatuses() {
+        int pawnRequests = backfill("pawn_request", pawnCodes(), null);
+        int loans = backfill("loan", loanCodes(), "idx_loan_status_due_date");
+        if (pawnRequests > 0 || loans > 0) {
+            logger.info("✅ Legacy status migration finished: {} pawn requests, {} loans", pawnRequests, loans);
+        }
+        return Map.of("pawnRequests", pawnRequests, "loans", loans);
+    }
+
+    private int backfill(String table, Map<String, Short> codes, String legacyIndex) {
+        StringJoiner cases = new StringJoiner(" ", "CASE status ", " END");
+        StringJoiner names = new StringJoiner(", ", "(", ")");
+        codes.forEach((name, code) -> {
+            cases.add("WHEN '" + name + "' THEN " + code);
+            names.add("'" + name + "'");
+        });
+
+        int updated;
+        try {
+            updated = jdbcTemplate.update("UPDATE " + table + " SET status_code = " + cases
+                    + " WHERE status_code IS NULL AND status IN " + names);
+        } catch (DataAccessException e) {
+            if (!isMissingObject(e)) {
+                throw e;
+            }
+            // No legacy column: the table was created after the switch to status codes, or it was already dropped
+            logger.debug("Skipping legacy status migration for {}: no legacy status column", table);
+            return 0;
+        }
+
+        // Whatever still has no code carries a value no enum maps
+        List<Map<String, Object>> unmapped = jdbcTemplate.queryForList("SELECT status, COUNT(*) AS row_count FROM "
+                + table + " WHERE status_code IS NULL AND status IS NOT NULL GROUP BY status");
+        if (!unmapped.isEmpty()) {
+            logger.warn("{} has legacy statuses with no status code, keeping the legacy column until they are fixed: {}",
+                    table, unmapped);
+            return updated;
+        }
+
+        if (dropLegacyStatus) {
+            dropLegacyColumn(table, legacyIndex);
+        } else {
+            logger.info("Every {} row has a status code; set app.migrations.drop-legacy-status=true to drop the legacy column",
+                    table);
+        }
+        return updated;
+    }
+
+    private void dropLegacyColumn(String table, String legacyIndex) {
+        if (legacyIndex != null) {
+            try {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DROP INDEX " + legacyIndex);
+            } catch (DataAccessException e) {
+                if (!isMissingObject(e)) {
+                    throw e;
+                }
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN status");
+        logger.info("✅ Dropped legacy status column from {}", table);
+    }
+
+    private static boolean isMissingObject(DataAccessException e) {
+        return e.getMostSpecificCause() instanceof SQLException sqlException
+                && MISSING_OBJECT_ERRORS.contains(sqlException.getErrorCode());
+    }
+
+    // Legacy status name -> code, in enum order
+    private static Map<String, Short> pawnCodes() {
+        Map<String, Short> codes = new LinkedHashMap<>();
+        for (PawnStatus status : PawnStatus.values()) {
+            codes.put(status.name(), status.getCode());
+        }
+        // Older rows used PAWNED for what is now ACTIVE
+        codes.put("PAWNED", PawnStatus.ACTIVE.getCode());
+        return codes;
+    }
+
+    private static Map<String, Short> loanCodes() {
+        Map<String, Short> codes = new LinkedHashMap<>();
+        for (LoanStatus status : LoanStatus.values()) {
+            codes.put(status.name(), status.getCode());
+        }
+        return codes;
+    }
+}
@@ -3,18 +3,25 @@ package com.thriftshirt.pawnshop.service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.thriftshirt.pawnshop.entity.Loan;
+import com.thriftshirt.pawnshop.entity.LoanStatus;
 import com.thriftshirt.pawnshop.entity.PawnRequest;
+import com.thriftshirt.pawnshop.entity.PawnStatus;
 import com.thriftshirt.pawnshop.entity.TransactionLog;
 import com.thriftshirt.pawnshop.exception.BadRequestException;
+import com.thriftshirt.pawnshop.exception.ConflictException;
 import com.thriftshirt.pawnshop.exception.ResourceNotFoundException;
 import com.thriftshirt.pawnshop.repository.LoanRepository;
 import com.thriftshirt.pawnshop.repository.PawnRequestRepository;
@@ -24,7 +31,8 @@ import com.thriftshirt.pawnshop.repository.PawnRequestRepository;
 public class LoanService {
 
     private static final Logger logger = LoggerFactory.getLogger(LoanService.class);
-    // Unused constants removed
+
+    private static final int MAX_ACTIVE_LOANS_PAGE_SIZE = 200;
 
     @Autowired
     private PawnRequestRepository pawnRequestRepository;
@@ -38,6 +46,15 @@ public class LoanService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private RevenueLedgerService revenueLedgerService;
+
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
     /**
      * Get loan by ID
      */
@@ -69,7 +86,7 @@ public class LoanService {
                 .orElseThrow(() -> new ResourceNotFoundException("Pawn request not found"));
 
         // Check if loan already exists and is active
-        if (pawnRequest.getLoan() != null && "PAWNED".equals(pawnRequest.getStatus())) {
+        if (pawnRequest.getLoan() != null && pawnRequest.getStatus() == PawnStatus.ACTIVE) {
             logger.info("Loan already exists for pawn ID: {}. Returning existing loan.", pawnId);
             return pawnRequest.getLoan();
         }
@@ -79,7 +96,7 @@ public class LoanService {
         // -> ACTIVE/PAWNED
         // Actually, AdminController calls validatePawnRequest which calls this.
         // We should check if status is "ACCEPTED" or "OFFER_ACCEPTED"
-        if (!"ACCEPTED".equals(pawnRequest.getStatus()) && !"OFFER_ACCEPTED".equals(pawnRequest.getStatus())) {
+        if (pawnRequest.getStatus() != PawnStatus.ACCEPTED && pawnRequest.getStatus() != PawnStatus.OFFER_ACCEPTED) {
             // For backward compatibility or testing, maybe allow "APPROVED" too if strictly
             // needed, but let's stick to new flow.
             // If we really want to enforce "Face to Face", this happens when Admin clicks
@@ -92,10 +109,10 @@ public class LoanService {
 
         // Check if there's an existing loan
         Loan existingLoan = pawnRequest.getLoan();
-        boolean isRenewal = existingLoan != null && "PAID".equals(existingLoan.getStatus());
+        boolean isRenewal = existingLoan != null && existingLoan.getStatus() == LoanStatus.PAID;
 
         // If there's an active loan (not paid), throw error
-        if (existingLoan != null && !"PAID".equals(existingLoan.getStatus())) {
+        if (existingLoan != null && existingLoan.getStatus() != LoanStatus.PAID) {
             throw new BadRequestException("An active loan already exists for this pawn request");
         }
 
@@ -130,13 +147,18 @@ public class LoanService {
         // Set loan terms
         loan.setInterestRate(interestRate);
         loan.setDueDate(LocalDate.now().plusDays(daysUntilDue));
-        loan.setStatus("ACTIVE");
+        if (isRenewal) {
+            StatusTransitions.moveLoan(loan, LoanStatus.ACTIVE);
+        } else {
+            loan.setStatus(LoanStatus.ACTIVE);
+        }
         loan.setPenalty(BigDecimal.ZERO);
         loan.setDateRedeemed(null); // Clear redemption date for renewals
+        loan.setDueReminderSentOn(null);
 
         // Setup bidirectional relationship
         pawnRequest.setLoan(loan);
-        pawnRequest.setStatus("ACTIVE"); // "ACTIVE" means cash given/loan active.
+        StatusTransitions.movePawn(pawnRequest, PawnStatus.ACTIVE); // "ACTIVE" means cash given/loan active.
 
         // Remove Wallet Logic - No adding to wallet. Cash is given face to face.
 
@@ -144,9 +166,12 @@ public class LoanService {
 
         // Save via PawnRequest (cascades to Loan)
         pawnRequest = pawnRequestRepository.save(pawnRequest);
+        flushTransition("Pawn request " + pawnId);
         Loan savedLoan = pawnRequest.getLoan();
 
         logger.info("✅ Loan created successfully. Loan ID: {}, Pawn ID: {}", savedLoan.getLoanId(), pawnId);
+        dashboardCounterService.onLoanOpened(savedLoan);
+        adminStatsService.invalidate();
 
         // Log transaction
         TransactionLog log = new TransactionLog();
@@ -161,7 +186,7 @@ public class LoanService {
 
         // Notify User
         notificationService.createNotification(
-                pawnRequest.getUser().getId(),
+                pawnRequest.getUser(),
                 "Loan activated for " + pawnRequest.getItemName() + ". Cash payout: ₱" + loan.getLoanAmount()
                         + ". Due date: " + loan.getDueDate(),
                 "SUCCESS");
@@ -170,30 +195,26 @@ public class LoanService {
     }
 
     /**
-     * Get all active loans
+     * Get a page of active loans, sorted by due date or loan amount
      */
-    public List<Loan> getAllActiveLoans() {
-        return loanRepository.findAll().stream()
-                .filter(loan -> "ACTIVE".equals(loan.getStatus()))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<Loan> getActiveLoans(int page, int size, String sortBy, String direction) {
+        String sortProperty = "loanAmount".equals(sortBy) || "amount".equals(sortBy) ? "loanAmount" : "dueDate";
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_ACTIVE_LOANS_PAGE_SIZE);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize,
+                Sort.by(sortDirection, sortProperty).and(Sort.by(Sort.Direction.ASC, "loanId")));
+
+        return loanRepository.findPageByStatusWithPawnItemAndUser(LoanStatus.ACTIVE, pageable);
     }
 
+    /**
+     * Gross revenue (principal + interest + penalty) from redeemed loans, read from the revenue ledger
+     */
+    @Transactional(readOnly = true)
     public BigDecimal calculateCurrentRevenue() {
-        // Calculate Real Revenue (Profit) from Paid Loans (Interest Only)
-        List<Loan> paidLoans = loanRepository.findAll().stream()
-                .filter(loan -> "PAID".equals(loan.getStatus()))
-                .collect(Collectors.toList());
-
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-
-        for (Loan loan : paidLoans) {
-            // Calculate Gross Revenue: Principal + Interest (Total Redemption Amount)
-            // User Definition: "Total income... before any costs are deducted"
-            BigDecimal amount = loan.calculateTotalRedeemAmount();
-            totalRevenue = totalRevenue.add(amount);
-        }
-
-        return totalRevenue;
+        return revenueLedgerService.getTotalRevenue();
     }
 
     // unused methods removed
@@ -207,7 +228,7 @@ public class LoanService {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
 
-        if (!"ACTIVE".equals(loan.getStatus())) {
+        if (loan.getStatus() != LoanStatus.ACTIVE) {
             throw new BadRequestException("Loan is not active. Current status: " + loan.getStatus());
         }
 
@@ -224,14 +245,21 @@ public class LoanService {
         logger.info("Processing Face-to-Face Redemption Payment");
 
         // Update Loan
-        loan.setStatus("PAID");
+        StatusTransitions.moveLoan(loan, LoanStatus.PAID);
         loan.setDateRedeemed(LocalDate.now());
 
         // Update Pawn Item
-        pawn.setStatus("REDEEMED");
+        StatusTransitions.movePawn(pawn, PawnStatus.REDEEMED);
 
         loanRepository.save(loan);
         pawnRequestRepository.save(pawn); // Explicitly save parent to ensure sync
+        flushTransition("Loan " + loanId);
+
+        dashboardCounterService.onLoanClosed(loan);
+        adminStatsService.invalidate();
+
+        // Book the redemption into the revenue ledger in the same transaction
+        revenueLedgerService.recordRedemption(loan.getDateRedeemed(), totalRedeemAmount);
 
         // Calculate revenue earned (5% interest)
         BigDecimal interestEarned = loan.getLoanAmount().multiply(BigDecimal.valueOf(0.05));
@@ -261,7 +289,7 @@ public class LoanService {
 
         // Notify User
         notificationService.createNotification(
-                pawn.getUser().getId(),
+                pawn.getUser(),
                 "Loan for " + pawn.getItemName() + " has been paid. Item successfully redeemed.",
                 "SUCCESS");
 
@@ -277,38 +305,60 @@ public class LoanService {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
 
-        if (!"ACTIVE".equals(loan.getStatus())) {
+        if (loan.getStatus() != LoanStatus.ACTIVE) {
             throw new BadRequestException("Loan is not active. Current status: " + loan.getStatus());
         }
 
+        PawnRequest pawn = loan.getPawnItem();
+        markForfeited(loan, "Loan " + loanId + " forfeited. Item " + pawn.getItemName() + " moved to inventory.");
+
+        // Notify User
+        notificationService.createNotification(
+                pawn.getUser(),
+                "Loan for " + pawn.getItemName()
+                        + " has been forfeited due to non-payment. Item has been moved to inventory.",
+                "ERROR");
+
+        return loan;
+    }
+
+    /**
+     * Forfeit an active loan the caller has already loaded and log it; the caller notifies the user
+     */
+    void markForfeited(Loan loan, String remarks) {
         // Update Loan
-        loan.setStatus("DEFAULTED");
+        StatusTransitions.moveLoan(loan, LoanStatus.DEFAULTED);
 
         // Update Pawn Item
         PawnRequest pawn = loan.getPawnItem();
-        pawn.setStatus("FORFEITED");
+        StatusTransitions.movePawn(pawn, PawnStatus.FORFEITED);
 
         loanRepository.save(loan);
         pawnRequestRepository.save(pawn);
+        flushTransition("Loan " + loan.getLoanId());
 
-        logger.info("⛔ Loan {} forfeited", loanId);
+        dashboardCounterService.onLoanClosed(loan);
+        adminStatsService.invalidate();
+        logger.info("⛔ Loan {} forfeited", loan.getLoanId());
 
         // Log transaction
         TransactionLog log = new TransactionLog();
         log.setUser(pawn.getUser());
         log.setAction("LOAN_FORFEITED");
-        log.setRemarks("Loan " + loanId + " forfeited. Item " + pawn.getItemName() + " moved to inventory.");
+        log.setRemarks(remarks);
         log.setCondition(pawn.getCondition());
         transactionLogService.logTransaction(log);
+    }
 
-        // Notify User
-        notificationService.createNotification(
-                pawn.getUser().getId(),
-                "Loan for " + pawn.getItemName()
-                        + " has been forfeited due to non-payment. Item has been moved to inventory.",
-                "ERROR");
-
-        return loan;
+    /**
+     * Get a page of active loans that are past their due date, oldest due date first
+     */
+    @Transactional(readOnly = true)
+    public Page<Loan> getOverdueLoans(int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_ACTIVE_LOANS_PAGE_SIZE);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize,
+                Sort.by(Sort.Direction.ASC, "dueDate").and(Sort.by(Sort.Direction.ASC, "loanId")));
+        return loanRepository.findPageOverdueWithPawnItemAndUser(LocalDate.now(), pageable);
     }
 
     /**
@@ -316,9 +366,15 @@ public class LoanService {
      */
     public List<Loan> getUserLoans(Long userId) {
         logger.info("Getting loans for user ID: {}", userId);
-        return loanRepository.findAll().stream()
-                .filter(loan -> loan.getPawnItem().getUser().getId().equals(userId))
-                .collect(Collectors.toList());
+        return loanRepository.findByUserIdWithPawnItem(userId);
+    }
+
+    /**
+     * Get the loan for one of a user's pawn items
+     */
+    public Loan getUserLoanByPawnId(Long userId, Long pawnId) {
+        return loanRepository.findByUserIdAndPawnId(userId, pawnId)
+                .orElseThrow(() -> new ResourceNotFoundException("No active loan found for this pawn item"));
     }
 
     // renewLoan method removed as per requirements
@@ -335,4 +391,15 @@ public class LoanService {
             return false;
         }
     }
+
+    /**
+     * Write pending changes now so a concurrent transition on the same rows fails fast with a conflict
+     */
+    private void flushTransition(String item) {
+        try {
+            loanRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException(item + " was changed by another request. Reload and try again.", e);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.thriftshirt.pawnshop.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly retention job that deletes read notifications older than
+ * app.notifications.retention-days, keeping the notification table small.
+ */
+@Component
+public class NotificationCompactionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCompactionJob.class);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Value("${app.notifications.compaction.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.retention-days:90}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${app.notifications.compaction.cron:0 30 3 * * *}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            notificationService.purgeOlderThan(retentionDays, true);
+        } catch (Exception e) {
+            logger.error("Notification compaction failed: ", e);
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.thriftshirt.pawnshop.service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.thriftshirt.pawnshop.dto.response.NotificationPageResponse;
+import com.thriftshirt.pawnshop.dto.response.NotificationResponse;
 import com.thriftshirt.pawnshop.entity.Notification;
+import com.thriftshirt.pawnshop.entity.Role;
 import com.thriftshirt.pawnshop.entity.User;
+import com.thriftshirt.pawnshop.exception.BadRequestException;
 import com.thriftshirt.pawnshop.exception.ResourceNotFoundException;
 import com.thriftshirt.pawnshop.repository.NotificationRepository;
 import com.thriftshirt.pawnshop.repository.UserRepository;
@@ -21,29 +33,37 @@ public class NotificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
+    private static final int MAX_FEED_PAGE_SIZE = 200;
+
     @Autowired
     private NotificationRepository notificationRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private NotificationStreamRegistry notificationStreamRegistry;
+
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+
     /**
      * Create a notification for a specific user
      */
     public Notification createNotification(Long userId, String message, String type) {
+        // Reference only; the FK constraint rejects unknown users on insert
+        return createNotification(userRepository.getReferenceById(userId), message, type);
+    }
+
+    /**
+     * Create a notification for a user entity the caller already holds
+     */
+    public Notification createNotification(User user, String message, String type) {
         try {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-            Notification notification = new Notification();
-            notification.setUser(user);
-            notification.setMessage(message);
-            notification.setType(type); // e.g., "INFO", "SUCCESS", "WARNING", "ERROR"
-            notification.setRead(false);
-            notification.setTimestamp(LocalDateTime.now());
-
-            Notification saved = notificationRepository.save(notification);
-            logger.info("Notification created for user {}: {}", userId, message);
+            Notification saved = notificationRepository.save(newNotification(user, message, type));
+            dashboardCounterService.onNotificationsCreated(Map.of(user.getId(), 1));
+            pushAfterCommit(user.getId(), new NotificationResponse(saved));
+            logger.info("Notification created for user {}: {}", user.getId(), message);
             return saved;
         } catch (Exception e) {
             logger.error("Error creating notification: ", e);
@@ -52,50 +72,132 @@ public class NotificationService {
     }
 
     /**
-     * Get all notifications for a user
+     * Create the same notification for many users in one transaction, without loading the users
+     */
+    public int createNotifications(Collection<Long> userIds, String message, String type) {
+        List<Notification> notifications = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            notifications.add(newNotification(userRepository.getReferenceById(userId), message, type));
+        }
+        int sent = createNotifications(notifications);
+        logger.info("Notification sent to {} users: {}", sent, message);
+        return sent;
+    }
+
+    /**
+     * Save a batch of individually addressed notifications in one transaction
+     */
+    public int createNotifications(List<Notification> notifications) {
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        Map<Long, Integer> countsByUser = new HashMap<>();
+        for (Notification notification : saved) {
+            countsByUser.merge(notification.getUser().getId(), 1, Integer::sum);
+            pushAfterCommit(notification.getUser().getId(), new NotificationResponse(notification));
+        }
+        dashboardCounterService.onNotificationsCreated(countsByUser);
+        return saved.size();
+    }
+
+    /**
+     * Build an unsaved notification, for use with createNotifications(List)
+     */
+    public Notification newNotification(User user, String message, String type) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setMessage(message);
+        notification.setType(type); // e.g., "INFO", "SUCCESS", "WARNING", "ERROR"
+        notification.setRead(false);
+        notification.setTimestamp(LocalDateTime.now());
+        return notification;
+    }
+
+    /**
+     * Broadcast a notice to every enabled customer account
      */
-    public List<Notification> getUserNotifications(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return notificationRepository.findByUserOrderByTimestampDesc(user);
+    public int broadcastToUsers(String message, String type) {
+        return createNotifications(userRepository.findEnabledIdsByRole(Role.USER), message, type);
+    }
+
+    /**
+     * Get one page of a user's notifications, newest first.
+     * With afterId, returns only notifications newer than that id, oldest first (delta fetch for
+     * clients; when cut off, nextAfterId continues it); otherwise continues after the given cursor,
+     * "<timestamp>_<notifId>".
+     */
+    @Transactional(readOnly = true)
+    public NotificationPageResponse getNotificationFeed(Long userId, String cursor, Long afterId, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_FEED_PAGE_SIZE);
+
+        if (afterId != null) {
+            List<Notification> newer = notificationRepository.findNewerThan(userId, afterId,
+                    PageRequest.of(0, pageSize + 1));
+            Long nextAfterId = null;
+            if (newer.size() > pageSize) {
+                newer = newer.subList(0, pageSize);
+                nextAfterId = newer.get(pageSize - 1).getNotifId();
+            }
+            return new NotificationPageResponse(newer.stream().map(NotificationResponse::new).toList(), null,
+                    nextAfterId);
+        }
+
+        LocalDateTime cursorTimestamp = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                cursorTimestamp = LocalDateTime.parse(cursor.substring(0, separator));
+                cursorId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<Notification> notifications = notificationRepository.findFeedPage(userId, cursorTimestamp, cursorId,
+                PageRequest.of(0, pageSize + 1));
+
+        String nextCursor = null;
+        if (notifications.size() > pageSize) {
+            notifications = notifications.subList(0, pageSize);
+            Notification last = notifications.get(pageSize - 1);
+            nextCursor = last.getTimestamp() + "_" + last.getNotifId();
+        }
+        return new NotificationPageResponse(notifications.stream().map(NotificationResponse::new).toList(),
+                nextCursor);
     }
 
     /**
      * Get unread notification count
      */
     public long getUnreadCount(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return notificationRepository.countByUserAndIsReadFalse(user);
+        return dashboardCounterService.getCounters(userId).getUnreadNotifications();
     }
 
     /**
      * Mark a specific notification as read
      */
-    public Notification markAsRead(Long notifId, Long userId) {
-        Notification notification = notificationRepository.findById(notifId)
-                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
-
-        if (!notification.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to notification");
+    public void markAsRead(Long notifId, Long userId) {
+        // Conditional update: of two concurrent reads only one decrements the unread count
+        if (notificationRepository.markAsReadIfUnread(notifId, userId) == 1) {
+            dashboardCounterService.onNotificationRead(userId);
+            return;
+        }
+        // Nothing updated: either already read, or not this user's notification
+        if (!notificationRepository.existsByNotifIdAndUserId(notifId, userId)) {
+            throw new ResourceNotFoundException("Notification not found");
         }
-
-        notification.setRead(true);
-        return notificationRepository.save(notification);
     }
 
     /**
      * Mark all notifications as read for a user
      */
-    public void markAllAsRead(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        List<Notification> unread = notificationRepository.findByUserAndIsReadFalseOrderByTimestampDesc(user);
-        for (Notification notif : unread) {
-            notif.setRead(true);
+    public int markAllAsRead(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
         }
-        notificationRepository.saveAll(unread);
+        int updated = notificationRepository.markAllAsReadByUserId(userId);
+        dashboardCounterService.refreshUnread(userId);
+        return updated;
     }
 
     /**
@@ -109,6 +211,63 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized access to notification");
         }
 
-        notificationRepository.delete(notification);
+        // Conditional delete: only the call that removes a still-unread notification decrements the count
+        if (notificationRepository.deleteIfUnread(notifId, userId) == 1) {
+            dashboardCounterService.onNotificationRead(userId);
+        } else {
+            notificationRepository.deleteByUserIdAndNotifIdIn(userId, List.of(notifId));
+        }
+    }
+
+    /**
+     * Delete several of a user's notifications at once
+     */
+    public int deleteNotifications(List<Long> notifIds, Long userId) {
+        if (notifIds == null || notifIds.isEmpty()) {
+            throw new BadRequestException("At least one notification id is required");
+        }
+        int deleted = notificationRepository.deleteByUserIdAndNotifIdIn(userId, notifIds);
+        dashboardCounterService.refreshUnread(userId);
+        return deleted;
+    }
+
+    /**
+     * Delete every notification of a user
+     */
+    public int deleteAllNotifications(Long userId) {
+        int deleted = notificationRepository.deleteAllByUserId(userId);
+        dashboardCounterService.refreshUnread(userId);
+        return deleted;
+    }
+
+    /**
+     * Delete notifications older than the given number of days, optionally only read ones
+     */
+    public int purgeOlderThan(int days, boolean readOnly) {
+        if (days < 1) {
+            throw new BadRequestException("Retention must be at least 1 day");
+        }
+        int deleted = notificationRepository.deleteOlderThan(LocalDateTime.now().minusDays(days), readOnly);
+        if (!readOnly && deleted > 0) {
+            dashboardCounterService.invalidateAll();
+        }
+        logger.info("Purged {} notifications older than {} days", deleted, days);
+        return deleted;
+    }
+
+    /**
+     * Push a notification to the user's open streams once the surrounding transaction commits
+     */
+    private void pushAfterCommit(Long userId, NotificationResponse payload) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notificationStreamRegistry.publish(userId, "notification", payload);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationStreamRegistry.publish(userId, "notification", payload);
+            }
+        });
     }
 }
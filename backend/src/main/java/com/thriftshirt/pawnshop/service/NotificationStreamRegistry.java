@@ -0,0 +1,192 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-user registry of open notification streams. Connections are held as
+ * async servlet responses, so an idle client keeps no request thread busy.
+ * Events are queued per connection and written by a small dedicated sender
+ * pool, so publishing (from afterCommit) and the scheduled heartbeat never
+ * block on a client socket. A client that falls too far behind is dropped.
+ */
+@Component
+public class NotificationStreamRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamRegistry.class);
+
+    private final Map<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+
+    @Value("${app.notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.notifications.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${app.notifications.stream.sender-threads:2}")
+    private int senderThreads;
+
+    @Value("${app.notifications.stream.sender-queue-capacity:10000}")
+    private int senderQueueCapacity;
+
+    @Value("${app.notifications.stream.max-pending-events:100}")
+    private int maxPendingEvents;
+
+    private ThreadPoolExecutor sender;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(senderQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "notification-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        sender.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        sender.shutdownNow();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Open a new stream for the user. The oldest stream is closed once the
+     * per-user limit is reached so abandoned tabs do not pile up.
+     */
+    public SseEmitter register(Long userId) {
+        Connection connection = new Connection(new SseEmitter(timeoutMs), maxPendingEvents);
+        Set<Connection> connections = connectionsByUser.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>());
+        if (connections.size() >= maxPerUser) {
+            Connection oldest = connections.iterator().next();
+            connections.remove(oldest);
+            oldest.emitter.complete();
+        }
+        connections.add(connection);
+
+        SseEmitter emitter = connection.emitter;
+        emitter.onCompletion(() -> remove(userId, connection));
+        emitter.onTimeout(() -> remove(userId, connection));
+        emitter.onError(e -> remove(userId, connection));
+        return emitter;
+    }
+
+    /**
+     * Queue an event for every open stream of the user. No-op when the user is
+     * not connected; never blocks on the network.
+     */
+    public void publish(Long userId, String eventName, Object payload) {
+        Set<Connection> connections = connectionsByUser.get(userId);
+        if (connections == null) {
+            return;
+        }
+        for (Connection connection : connections) {
+            enqueue(userId, connection, SseEmitter.event().name(eventName).data(payload));
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionsByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Comment-only heartbeat so proxies keep idle streams open and dead
+     * connections are detected and dropped.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        connectionsByUser.forEach((userId, connections) -> {
+            for (Connection connection : connections) {
+                enqueue(userId, connection, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    private void enqueue(Long userId, Connection connection, SseEmitter.SseEventBuilder event) {
+        if (!connection.pending.offer(event)) {
+            drop(userId, connection, new IOException("client is not keeping up"));
+            return;
+        }
+        scheduleDrain(userId, connection);
+    }
+
+    // At most one drain task per connection, so its events are written in order
+    private void scheduleDrain(Long userId, Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(userId, connection));
+        } catch (RejectedExecutionException e) {
+            // Events stay queued; the next publish or heartbeat retries
+            connection.draining.set(false);
+            logger.warn("Notification stream sender is saturated; delaying events for user {}", userId);
+        }
+    }
+
+    private void drain(Long userId, Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = connection.pending.poll()) != null) {
+                connection.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(userId, connection, e);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        // An event queued after the last poll but before the flag was cleared
+        if (!connection.pending.isEmpty()) {
+            scheduleDrain(userId, connection);
+        }
+    }
+
+    private void drop(Long userId, Connection connection, Exception cause) {
+        logger.debug("Dropping notification stream for user {}: {}", userId, cause.getMessage());
+        remove(userId, connection);
+        connection.pending.clear();
+        connection.emitter.completeWithError(cause);
+    }
+
+    private void remove(Long userId, Connection connection) {
+        connectionsByUser.computeIfPresent(userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private static final class Connection {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Connection(SseEmitter emitter, int maxPendingEvents) {
+            this.emitter = emitter;
+            this.pending = new LinkedBlockingQueue<>(maxPendingEvents);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.thriftshirt.pawnshop.entity.Loan;
+import com.thriftshirt.pawnshop.entity.LoanStatus;
+import com.thriftshirt.pawnshop.entity.Notification;
+import com.thriftshirt.pawnshop.entity.PawnRequest;
+import com.thriftshirt.pawnshop.repository.LoanRepository;
+
+/**
+ * Daily sweep over overdue active loans. Walks the (status, due_date) index in
+ * chunks, one transaction per chunk: recomputes each loan's penalty from the
+ * days overdue, notifies users the first time a loan goes overdue, and forfeits
+ * loans past the grace period. A chunk that fails is retried one loan per
+ * transaction, so a single bad loan is logged and skipped instead of stopping
+ * the sweep. Guarded by a database lease so only one node sweeps.
+ */
+@Component
+public class OverdueLoanSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueLoanSweeper.class);
+
+    private static final String LEASE_NAME = "overdue-loan-sweep";
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.loans.overdue.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.loans.overdue.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${app.loans.overdue.daily-penalty-percent:0.5}")
+    private BigDecimal dailyPenaltyPercent;
+
+    @Value("${app.loans.overdue.grace-period-days:30}")
+    private int gracePeriodDays;
+
+    @Value("${app.loans.overdue.auto-forfeit:true}")
+    private boolean autoForfeit;
+
+    @Value("${app.loans.overdue.lease-minutes:15}")
+    private int leaseMinutes;
+
+    @Scheduled(cron = "${app.loans.overdue.cron:0 0 1 * * *}")
+    public void scheduledSweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweep();
+        } catch (Exception e) {
+            logger.error("Overdue loan sweep failed: ", e);
+        }
+    }
+
+    /**
+     * Run one sweep now; returns how many loans were checked, penalized, forfeited and skipped on failure
+     */
+    public Map<String, Integer> sweep() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("checked", 0);
+        result.put("penalized", 0);
+        result.put("forfeited", 0);
+        result.put("failed", 0);
+
+        Duration leaseTtl = Duration.ofMinutes(leaseMinutes);
+        if (!schedulerLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return result;
+        }
+
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            LocalDate today = LocalDate.now();
+            LocalDate afterDueDate = null;
+            Long afterLoanId = 0L;
+
+            while (true) {
+                final LocalDate cursorDate = afterDueDate;
+                final Long cursorId = afterLoanId;
+                // Counts are merged only once their transaction has committed
+                Map<String, Integer> chunkResult = new HashMap<>();
+                Loan last;
+                try {
+                    last = tx.execute(status -> sweepLoans(findChunk(today, cursorDate, cursorId), today, chunkResult));
+                } catch (RuntimeException e) {
+                    logger.warn("Overdue loan sweep chunk failed, retrying its loans one at a time: {}", e.getMessage());
+                    chunkResult.clear();
+                    last = sweepLoanByLoan(tx, today, cursorDate, cursorId, chunkResult);
+                }
+                chunkResult.forEach((key, count) -> result.merge(key, count, Integer::sum));
+                if (last == null) {
+                    break;
+                }
+                afterDueDate = last.getDueDate();
+                afterLoanId = last.getLoanId();
+
+                // Extend the lease between chunks; stop if another node has taken over
+                if (!schedulerLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+                    break;
+                }
+            }
+        } finally {
+            schedulerLeaseService.release(LEASE_NAME);
+        }
+
+        logger.info("✅ Overdue loan sweep finished: {}", result);
+        return result;
+    }
+
+    private List<Loan> findChunk(LocalDate today, LocalDate afterDueDate, Long afterLoanId) {
+        return loanRepository.findOverdueChunk(today, afterDueDate, afterLoanId, PageRequest.of(0, chunkSize));
+    }
+
+    /**
+     * Re-run a failed chunk with one transaction per loan; loans that still fail are logged and
+     * skipped. Returns the last loan of the chunk, or null when there are no more
+     */
+    private Loan sweepLoanByLoan(TransactionTemplate tx, LocalDate today, LocalDate afterDueDate, Long afterLoanId,
+            Map<String, Integer> result) {
+        List<Loan> loans = findChunk(today, afterDueDate, afterLoanId);
+        for (Loan loan : loans) {
+            Map<String, Integer> loanResult = new HashMap<>();
+            try {
+                tx.executeWithoutResult(status -> loanRepository.findById(loan.getLoanId())
+                        .filter(current -> current.getStatus() == LoanStatus.ACTIVE)
+                        .ifPresent(current -> sweepLoans(List.of(current), today, loanResult)));
+                loanResult.forEach((key, count) -> result.merge(key, count, Integer::sum));
+            } catch (RuntimeException e) {
+                logger.error("Overdue loan sweep skipped loan {}: {}", loan.getLoanId(), e.getMessage(), e);
+                result.merge("failed", 1, Integer::sum);
+            }
+        }
+        return loans.isEmpty() ? null : loans.get(loans.size() - 1);
+    }
+
+    /**
+     * Process loans in the current transaction; returns the last loan, or null when there are none
+     */
+    private Loan sweepLoans(List<Loan> loans, LocalDate today, Map<String, Integer> result) {
+        if (loans.isEmpty()) {
+            return null;
+        }
+
+        List<Notification> notifications = new ArrayList<>();
+        for (Loan loan : loans) {
+            PawnRequest pawn = loan.getPawnItem();
+            long daysOverdue = ChronoUnit.DAYS.between(loan.getDueDate(), today);
+            result.merge("checked", 1, Integer::sum);
+
+            if (autoForfeit && daysOverdue > gracePeriodDays) {
+                loanService.markForfeited(loan, "Loan " + loan.getLoanId() + " automatically forfeited after "
+                        + daysOverdue + " days overdue. Item " + pawn.getItemName() + " moved to inventory.");
+                notifications.add(notificationService.newNotification(pawn.getUser(),
+                        "Loan for " + pawn.getItemName() + " has been forfeited after " + daysOverdue
+                                + " days overdue. Item has been moved to inventory.",
+                        "ERROR"));
+                result.merge("forfeited", 1, Integer::sum);
+                continue;
+            }
+
+            // Penalty is recomputed from scratch so re-running a sweep never double-charges
+            BigDecimal penalty = loan.getLoanAmount()
+                    .multiply(dailyPenaltyPercent)
+                    .multiply(BigDecimal.valueOf(daysOverdue))
+                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+            // Loans penalized before the marker existed were already notified; only mark them
+            boolean previouslyPenalized = loan.getPenalty() != null && loan.getPenalty().signum() > 0;
+            if (penalty.compareTo(loan.getPenalty() != null ? loan.getPenalty() : BigDecimal.ZERO) != 0) {
+                loan.setPenalty(penalty);
+                result.merge("penalized", 1, Integer::sum);
+            }
+
+            if (loan.getOverdueNoticeSentOn() != null) {
+                continue;
+            }
+            loan.setOverdueNoticeSentOn(today);
+            if (!previouslyPenalized) {
+                notifications.add(notificationService.newNotification(pawn.getUser(),
+                        "Loan for " + pawn.getItemName() + " is overdue since " + loan.getDueDate()
+                                + ". A penalty of " + dailyPenaltyPercent + "% per day now applies"
+                                + (autoForfeit ? " and the item will be forfeited after " + gracePeriodDays
+                                        + " days overdue." : "."),
+                        "WARNING"));
+            }
+        }
+
+        if (!notifications.isEmpty()) {
+            notificationService.createNotifications(notifications);
+        }
+        return loans.get(loans.size() - 1);
+    }
+}
@@ -5,19 +5,22 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.thriftshirt.pawnshop.dto.request.CreatePawnRequestDTO;
 import com.thriftshirt.pawnshop.dto.response.PawnRequestResponse;
 import com.thriftshirt.pawnshop.entity.PawnRequest;
+import com.thriftshirt.pawnshop.entity.PawnStatus;
 import com.thriftshirt.pawnshop.entity.User;
+import com.thriftshirt.pawnshop.entity.UserDashboardCounters;
 import com.thriftshirt.pawnshop.exception.BadRequestException;
+import com.thriftshirt.pawnshop.exception.ConflictException;
 import com.thriftshirt.pawnshop.exception.ResourceNotFoundException;
 import com.thriftshirt.pawnshop.repository.PawnRequestRepository;
 import com.thriftshirt.pawnshop.repository.UserRepository;
@@ -37,19 +40,26 @@ public class PawnRequestService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private PhotoService photoService;
+
+    @Autowired
+    private PhotoPayloadValidator photoPayloadValidator;
+
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private StoredImageService storedImageService;
+
     /**
      * Create a new pawn request
      */
     public PawnRequestResponse createPawnRequest(Long userId, CreatePawnRequestDTO requestDTO) {
         logger.info("Creating pawn request for user: {}", userId);
 
-        // Validate photos - maximum 2 images
-        if (requestDTO.getPhotos() != null && !requestDTO.getPhotos().isEmpty()) {
-            int imageCount = countImagesInJson(requestDTO.getPhotos());
-            if (imageCount > 2) {
-                throw new BadRequestException("Maximum 2 images allowed. You provided " + imageCount);
-            }
-        }
+        // Validate photos in a single pass - maximum 2 images, bounded size per image
+        List<String> photoEntries = photoPayloadValidator.validate(requestDTO.getPhotos());
 
         // Find user
         User user = userRepository.findById(userId)
@@ -76,10 +86,11 @@ public class PawnRequestService {
             pawnRequest.setSize(requestDTO.getSize());
             pawnRequest.setCondition(requestDTO.getCondition());
             pawnRequest.setDescription(requestDTO.getDescription());
-            pawnRequest.setPhotos(requestDTO.getPhotos());
+            pawnRequest.setPhotos(photoEntries.isEmpty() ? requestDTO.getPhotos() : photoService.externalize(photoEntries));
+            storedImageService.acquire(pawnRequest.getPhotos());
 
             // Initial status is PENDING
-            pawnRequest.setStatus("PENDING");
+            pawnRequest.setStatus(PawnStatus.PENDING);
             pawnRequest.setCreatedAt(java.time.LocalDateTime.now());
             pawnRequest.setCategory(requestDTO.getCategory() != null ? requestDTO.getCategory() : "General");
 
@@ -90,7 +101,7 @@ public class PawnRequestService {
 
             // Create notification for user
             notificationService.createNotification(
-                    userId,
+                    user,
                     "Pawn request created for item: " + saved.getItemName() + ". Waiting for admin assessment.",
                     "INFO");
 
@@ -106,28 +117,25 @@ public class PawnRequestService {
     /**
      * Get all pawn requests for a specific user
      */
+    @Transactional(readOnly = true)
     public List<PawnRequestResponse> getUserPawnRequests(Long userId) {
         logger.info("Fetching pawn requests for user: {}", userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
-        return pawnRequestRepository.findByUser(user)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return pawnRequestRepository.findResponsesByUserId(userId);
     }
 
     /**
      * Get all pawn requests (for admin)
      */
+    @Transactional(readOnly = true)
     public List<PawnRequestResponse> getAllPawnRequests() {
         logger.info("Fetching all pawn requests");
 
-        return pawnRequestRepository.findAll()
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return pawnRequestRepository.findAllResponses();
     }
 
     /**
@@ -153,26 +161,21 @@ public class PawnRequestService {
     /**
      * Get all pawn requests with a specific status
      */
+    @Transactional(readOnly = true)
     public List<PawnRequestResponse> getPawnRequestsByStatus(String status) {
         logger.info("Fetching pawn requests with status: {}", status);
 
-        return pawnRequestRepository.findByStatus(status)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return pawnRequestRepository.findResponsesByStatus(StatusTransitions.parsePawnStatus(status));
     }
 
     /**
      * Get all pawn requests for inventory (FORFEITED items only)
      */
+    @Transactional(readOnly = true)
     public List<PawnRequestResponse> getInventoryItems() {
         logger.info("Fetching inventory items (FORFEITED status only)");
 
-        List<PawnRequest> forfeitedItems = pawnRequestRepository.findByStatus("FORFEITED");
-
-        return forfeitedItems.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return pawnRequestRepository.findResponsesByStatus(PawnStatus.FORFEITED);
     }
 
     /**
@@ -184,17 +187,18 @@ public class PawnRequestService {
         PawnRequest pawnRequest = pawnRequestRepository.findById(pawnId)
                 .orElseThrow(() -> new ResourceNotFoundException("Pawn request not found"));
 
-        pawnRequest.setStatus(status);
+        PawnStatus newStatus = StatusTransitions.parsePawnStatus(status);
+        StatusTransitions.movePawnManually(pawnRequest, newStatus);
 
         // Set appraisal date and appraised by when status is changed to APPROVED
-        if ("APPROVED".equals(status)) {
+        if (newStatus == PawnStatus.APPROVED) {
             pawnRequest.setAppraisalDate(LocalDate.now());
             pawnRequest.setAppraisedBy(adminUser.getUsername());
             logger.info("Setting appraisal date for pawn request {}: {} by admin: {}",
                     pawnId, LocalDate.now(), adminUser.getUsername());
         }
 
-        PawnRequest updated = pawnRequestRepository.save(pawnRequest);
+        PawnRequest updated = saveTransition(pawnRequest);
 
         return mapToResponse(updated);
     }
@@ -221,12 +225,13 @@ public class PawnRequestService {
         }
 
         // Only allow deletion of PENDING and REJECTED requests
-        if (!"PENDING".equals(pawnRequest.getStatus()) && !"REJECTED".equals(pawnRequest.getStatus())) {
+        if (pawnRequest.getStatus() != PawnStatus.PENDING && pawnRequest.getStatus() != PawnStatus.REJECTED) {
             throw new BadRequestException("Only pending or rejected pawn requests can be deleted");
         }
 
         logger.info("Deleting pawn request with ID: {} (Status: {})", pawnId, pawnRequest.getStatus());
         pawnRequestRepository.deleteById(pawnId);
+        storedImageService.release(pawnRequest.getPhotos());
         logger.info("✅ Pawn request {} deleted successfully", pawnId);
     }
 
@@ -238,7 +243,7 @@ public class PawnRequestService {
         PawnRequest pawnRequest = pawnRequestRepository.findById(pawnId)
                 .orElseThrow(() -> new ResourceNotFoundException("Pawn request not found"));
 
-        if (!"PENDING".equals(pawnRequest.getStatus())) {
+        if (pawnRequest.getStatus() != PawnStatus.PENDING) {
             throw new BadRequestException(
                     "Only PENDING requests can be assessed. Current status: " + pawnRequest.getStatus());
         }
@@ -247,14 +252,14 @@ public class PawnRequestService {
         pawnRequest.setAdminRemarks(remarks);
         pawnRequest.setProposedInterestRate(interestRate);
         pawnRequest.setProposedLoanDuration(duration);
-        pawnRequest.setStatus("OFFER_MADE");
+        StatusTransitions.movePawn(pawnRequest, PawnStatus.OFFER_MADE);
         pawnRequest.setAppraisalDate(LocalDate.now());
 
-        PawnRequest saved = pawnRequestRepository.save(pawnRequest);
+        PawnRequest saved = saveTransition(pawnRequest);
 
         // Notify User
         notificationService.createNotification(
-                pawnRequest.getUser().getId(),
+                pawnRequest.getUser(),
                 "Great news! You have an offer of ₱" + offeredAmount + " for your item: " + pawnRequest.getItemName(),
                 "OFFER");
 
@@ -268,28 +273,28 @@ public class PawnRequestService {
         PawnRequest pawnRequest = pawnRequestRepository.findById(pawnId)
                 .orElseThrow(() -> new ResourceNotFoundException("Pawn request not found"));
 
-        if (!"OFFER_MADE".equals(pawnRequest.getStatus())) {
+        if (pawnRequest.getStatus() != PawnStatus.OFFER_MADE) {
             throw new BadRequestException(
                     "Can only respond to requests with an active offer. Current status: " + pawnRequest.getStatus());
         }
 
         if (accepted) {
-            pawnRequest.setStatus("ACCEPTED"); // User Accepted, ready for face-to-face validation
+            StatusTransitions.movePawn(pawnRequest, PawnStatus.ACCEPTED); // User Accepted, ready for face-to-face validation
             // Notify User of next steps
             notificationService.createNotification(
-                    pawnRequest.getUser().getId(),
+                    pawnRequest.getUser(),
                     "You accepted the offer for " + pawnRequest.getItemName()
                             + ". Please visit our nearest branch for validation and cash payout.",
                     "SUCCESS");
         } else {
-            pawnRequest.setStatus("REJECTED"); // User Rejected
+            StatusTransitions.movePawn(pawnRequest, PawnStatus.REJECTED); // User Rejected
             notificationService.createNotification(
-                    pawnRequest.getUser().getId(),
+                    pawnRequest.getUser(),
                     "You rejected the offer for " + pawnRequest.getItemName() + ". The request has been closed.",
                     "INFO");
         }
 
-        PawnRequest saved = pawnRequestRepository.save(pawnRequest);
+        PawnRequest saved = saveTransition(pawnRequest);
         return mapToResponse(saved);
     }
 
@@ -299,38 +304,31 @@ public class PawnRequestService {
     public Map<String, Object> getUserDashboardStats(Long userId) {
         logger.info("Calculating dashboard stats for user: {}", userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        List<PawnRequest> userRequests = pawnRequestRepository.findByUser(user);
-
-        // 1. Active Pawns
-        long activePawns = userRequests.stream()
-                .filter(req -> "PAWNED".equals(req.getStatus()))
-                .count();
-
-        // 2. Wallet Balance Removed
-
-        // 3. Due Soon (within 3 days)
-        LocalDate today = LocalDate.now();
-        LocalDate threeDaysFromNow = today.plusDays(3);
-
-        long dueSoon = userRequests.stream()
-                .filter(req -> "PAWNED".equals(req.getStatus()) && req.getLoan() != null)
-                .filter(req -> {
-                    LocalDate dueDate = req.getLoan().getDueDate();
-                    return dueDate != null && !dueDate.isBefore(today) && !dueDate.isAfter(threeDaysFromNow);
-                })
-                .count();
+        // Single read of the precomputed counters row
+        UserDashboardCounters counters = dashboardCounterService.getCounters(userId);
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("activePawns", activePawns);
-        stats.put("loanAmount", BigDecimal.ZERO); // Legacy compatibility
-        stats.put("dueSoon", dueSoon);
+        stats.put("activePawns", (long) counters.getActivePawns());
+        stats.put("loanAmount", counters.getOutstandingPrincipal()); // Outstanding principal of active loans
+        stats.put("outstandingPrincipal", counters.getOutstandingPrincipal());
+        stats.put("dueSoon", (long) counters.getDueSoon());
+        stats.put("unreadNotifications", (long) counters.getUnreadNotifications());
 
         return stats;
     }
 
+    /**
+     * Save a status change and flush it, so a concurrent change to the same request fails fast with a conflict
+     */
+    private PawnRequest saveTransition(PawnRequest pawnRequest) {
+        try {
+            return pawnRequestRepository.saveAndFlush(pawnRequest);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("Pawn request " + pawnRequest.getPawnId()
+                    + " was changed by another request. Reload and try again.", e);
+        }
+    }
+
     /**
      * Map PawnRequest entity to response DTO
      */
@@ -356,7 +354,7 @@ public class PawnRequestService {
                 null, // Estimated Value (Not really used, optional)
                 offeredAmount, // Correctly mapped offeredAmount
                 pawnRequest.getPhotos(),
-                pawnRequest.getStatus(),
+                pawnRequest.getStatus() != null ? pawnRequest.getStatus().name() : null,
                 pawnRequest.getAppraisalDate(),
                 pawnRequest.getAppraisedBy(),
                 interestRate,
@@ -366,40 +364,4 @@ public class PawnRequestService {
                         : null,
                 pawnRequest.getProposedLoanDuration());
     }
-
-    /**
-     * Count the number of images in a JSON array string (e.g., ["image1",
-     * "image2"])
-     */
-    private int countImagesInJson(String jsonPhotos) {
-        if (jsonPhotos == null || jsonPhotos.trim().isEmpty()) {
-            return 0;
-        }
-        try {
-            // Count occurrences of image data - simple heuristic
-            // JSON array format: ["data:image/...", "data:image/..."]
-            if (jsonPhotos.startsWith("[") && jsonPhotos.endsWith("]")) {
-                // Remove brackets and count commas + 1 (or 0 if empty array)
-                String content = jsonPhotos.substring(1, jsonPhotos.length() - 1).trim();
-                if (content.isEmpty()) {
-                    return 0;
-                }
-                // Count by splitting on commas that appear outside of quotes
-                int count = 1;
-                boolean inQuotes = false;
-                for (char c : content.toCharArray()) {
-                    if (c == '"' && (content.indexOf(c) == 0 || content.charAt(content.indexOf(c) - 1) != '\\')) {
-                        inQuotes = !inQuotes;
-                    }
-                    if (c == ',' && !inQuotes) {
-                        count++;
-                    }
-                }
-                return count;
-            }
-        } catch (Exception e) {
-            logger.warn("Error counting images in JSON photos: {}", e.getMessage());
-        }
-        return 0;
-    }
 }
@@ -0,0 +1,267 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thriftshirt.pawnshop.storage.ImageVariant;
+import com.thriftshirt.pawnshop.storage.PhotoReferences;
+import com.thriftshirt.pawnshop.storage.PhotoStore;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates thumbnails and previews (see ImageVariant) for photos in the local
+ * photo store, once per photo, on a small bounded worker pool. Photos are queued
+ * when they are stored; older photos are queued the first time a list response
+ * asks for their thumbnail. Until a derivative exists, responses fall back to the
+ * original. Cloudinary-hosted photos use delivery transformations instead.
+ */
+@Service
+public class PhotoDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoDerivativeService.class);
+
+    private static final String CLOUDINARY_UPLOAD_SEGMENT = "/image/upload/";
+
+    // Upper bound on remembered undecodable photos (e.g. webp/avif without an ImageIO plugin)
+    private static final int MAX_UNDECODABLE = 10_000;
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Autowired
+    private PhotoPayloadValidator photoPayloadValidator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.photos.derivatives.workers:2}")
+    private int workers;
+
+    @Value("${app.photos.derivatives.queue-capacity:200}")
+    private int queueCapacity;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> undecodable = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "photo-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue derivative generation for a stored photo; does nothing if they exist or are already queued
+     */
+    public void generateAsync(String photoId) {
+        if (undecodable.contains(photoId) || hasAllDerivatives(photoId) || !inFlight.add(photoId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(photoId);
+                } finally {
+                    inFlight.remove(photoId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full: the next list request asking for this photo will queue it again
+            inFlight.remove(photoId);
+            logger.debug("Derivative queue full, skipping photo {}", photoId);
+        }
+    }
+
+    /**
+     * Map a photos value to the URLs of one variant, as a JSON array. Entries without a
+     * derivative yet keep pointing at the original; inline data: photos map to null so
+     * their base64 is not repeated in the response.
+     */
+    public String variantUrls(String photos, ImageVariant variant, String baseUrl) {
+        if (photos == null || photos.isBlank()) {
+            return photos;
+        }
+        List<String> entries = photoPayloadValidator.readEntries(photos);
+        List<String> urls = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            urls.add(variantUrl(entry, variant, baseUrl));
+        }
+        try {
+            return objectMapper.writeValueAsString(urls);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize photo URLs", e);
+        }
+    }
+
+    private String variantUrl(String entry, ImageVariant variant, String baseUrl) {
+        if (entry == null || entry.startsWith("data:")) {
+            return null;
+        }
+
+        String photoId = PhotoReferences.isReference(entry)
+                ? PhotoReferences.toPhotoId(entry)
+                : PhotoReferences.photoIdFromUrl(entry);
+        if (photoId != null && PhotoReferences.isValidPhotoId(photoId)) {
+            if (photoStore.hasDerivative(photoId, variant)) {
+                return baseUrl + photoStore.derivativePublicPath(photoId, variant);
+            }
+            generateAsync(photoId);
+            return PhotoReferences.isReference(entry) ? baseUrl + photoStore.publicPath(photoId) : entry;
+        }
+
+        int upload = entry.indexOf(CLOUDINARY_UPLOAD_SEGMENT);
+        if (upload > 0 && entry.contains("res.cloudinary.com/")) {
+            int insertAt = upload + CLOUDINARY_UPLOAD_SEGMENT.length();
+            return entry.substring(0, insertAt) + variant.cloudinaryTransformation() + "/" + entry.substring(insertAt);
+        }
+        return entry;
+    }
+
+    private boolean hasAllDerivatives(String photoId) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!photoStore.hasDerivative(photoId, variant)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void generate(String photoId) {
+        try (InputStream original = photoStore.open(photoId);
+                ImageInputStream input = ImageIO.createImageInputStream(original)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                markUndecodable(photoId);
+                return;
+            }
+
+            ImageReader reader = readers.next();
+            BufferedImage source;
+            try {
+                reader.setInput(input, true, true);
+                // Subsample large originals while decoding; nothing needs more than twice the largest variant
+                int longEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longEdge / (ImageVariant.PREVIEW.getMaxEdge() * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (!photoStore.hasDerivative(photoId, variant)) {
+                    BufferedImage scaled = scale(source, variant.getMaxEdge());
+                    photoStore.storeDerivative(photoId, variant, encodeJpeg(scaled, variant.getQuality()));
+                }
+            }
+            logger.debug("Generated derivatives for photo {}", photoId);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not generate derivatives for photo {}: {}", photoId, e.getMessage());
+            markUndecodable(photoId);
+        }
+    }
+
+    private void markUndecodable(String photoId) {
+        if (undecodable.size() >= MAX_UNDECODABLE) {
+            undecodable.clear();
+        }
+        undecodable.add(photoId);
+    }
+
+    /**
+     * Downscale to fit within maxEdge, halving in steps for quality, onto an opaque RGB canvas
+     */
+    private static BufferedImage scale(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, currentWidth, currentHeight);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.thriftshirt.pawnshop.repository.PawnRequestRepository;
+import com.thriftshirt.pawnshop.repository.TransactionLogRepository;
+
+/**
+ * Moves inline base64 photos already stored in pawn_request and transaction_log
+ * into the photo store, one small batch per transaction.
+ */
+@Service
+public class PhotoMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoMigrationService.class);
+
+    @Autowired
+    private PawnRequestRepository pawnRequestRepository;
+
+    @Autowired
+    private TransactionLogRepository transactionLogRepository;
+
+    @Autowired
+    private PhotoService photoService;
+
+    @Autowired
+    private StoredImageService storedImageService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.photos.migration-batch-size:20}")
+    private int batchSize;
+
+    /**
+     * Migrate every row with inline photos; returns the number of rows rewritten per table
+     */
+    public Map<String, Integer> migrateInlinePhotos() {
+        logger.info("Starting inline photo migration (batch size {})", batchSize);
+
+        int pawnRequests = migrateTable("pawn_request",
+                pawnRequestRepository::findInlinePhotoBatch, pawnRequestRepository::updatePhotos);
+        int transactionLogs = migrateTable("transaction_log",
+                transactionLogRepository::findInlinePhotoBatch, transactionLogRepository::updatePhotos);
+
+        logger.info("✅ Inline photo migration finished: {} pawn requests, {} transaction logs",
+                pawnRequests, transactionLogs);
+        return Map.of("pawnRequests", pawnRequests, "transactionLogs", transactionLogs);
+    }
+
+    private int migrateTable(String table, BiFunction<Long, Pageable, List<Object[]>> nextBatch,
+            BiConsumer<Long, String> update) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Pageable page = PageRequest.of(0, batchSize);
+
+        int migrated = 0;
+        long afterId = 0L;
+        while (true) {
+            final long cursor = afterId;
+            Object[] result = tx.execute(status -> {
+                List<Object[]> rows = nextBatch.apply(cursor, page);
+                long lastId = cursor;
+                int count = 0;
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    String photos = (String) row[1];
+                    try {
+                        String externalized = photoService.externalizeInlinePhotos(photos);
+                        update.accept(id, externalized);
+                        // Rows with inline photos predate reference counting, so the whole value is new
+                        storedImageService.acquire(externalized);
+                        count++;
+                    } catch (RuntimeException e) {
+                        logger.warn("Skipping {} row {}: {}", table, id, e.getMessage());
+                    }
+                    lastId = id;
+                }
+                return new Object[] { rows.size(), lastId, count };
+            });
+
+            int fetched = (Integer) result[0];
+            afterId = (Long) result[1];
+            migrated += (Integer) result[2];
+            if (fetched < batchSize) {
+                return migrated;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thriftshirt.pawnshop.exception.BadRequestException;
+
+/**
+ * Single-pass validator for the photos payload of a pawn request: a JSON array of
+ * image URLs or base64 data URIs, or a single bare URL or data URI.
+ */
+@Component
+public class PhotoPayloadValidator {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.photos.max-count:2}")
+    private int maxCount;
+
+    @Value("${app.photos.max-image-bytes:5242880}")
+    private int maxImageBytes;
+
+    /**
+     * Tokenize the payload once, enforcing the image count and per-image size
+     * limits, and return the entries. Oversize payloads are rejected before parsing.
+     */
+    public List<String> validate(String photos) {
+        if (photos == null || photos.isEmpty()) {
+            return List.of();
+        }
+
+        // Upper bound on the characters maxCount base64 images can take, plus JSON overhead
+        long maxEncodedChars = encodedLength(maxImageBytes) + 256;
+        if (photos.length() > maxCount * maxEncodedChars) {
+            throw new BadRequestException("Photos payload is too large. Maximum " + maxCount
+                    + " images of " + (maxImageBytes / (1024 * 1024)) + "MB each allowed.");
+        }
+
+        return read(photos, true);
+    }
+
+    /**
+     * Read the entries of a photos value without enforcing request limits
+     * (used when migrating stored rows).
+     */
+    public List<String> readEntries(String photos) {
+        if (photos == null || photos.isEmpty()) {
+            return List.of();
+        }
+        return read(photos, false);
+    }
+
+    private List<String> read(String photos, boolean enforceLimits) {
+        // Anything that is not a JSON array is one bare entry, as clients have always been allowed to send
+        String trimmed = photos.strip();
+        if (!trimmed.startsWith("[")) {
+            checkImageSize(trimmed.length(), enforceLimits);
+            return List.of(trimmed);
+        }
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(trimmed)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Photos must be a JSON array of image URLs or data URIs");
+            }
+
+            List<String> entries = new ArrayList<>(Math.min(maxCount, 4));
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.VALUE_STRING) {
+                    throw new BadRequestException("Photos must be a JSON array of image URLs or data URIs");
+                }
+                if (enforceLimits && entries.size() >= maxCount) {
+                    throw new BadRequestException("Maximum " + maxCount + " images allowed.");
+                }
+                // Check the length before materializing the string
+                checkImageSize(parser.getTextLength(), enforceLimits);
+                entries.add(parser.getText());
+            }
+
+            if (parser.nextToken() != null) {
+                throw new BadRequestException("Photos must be a JSON array of image URLs or data URIs");
+            }
+            return entries;
+        } catch (IOException e) {
+            throw new BadRequestException("Photos must be a JSON array of image URLs or data URIs");
+        }
+    }
+
+    private void checkImageSize(int encodedChars, boolean enforceLimits) {
+        if (enforceLimits && encodedChars > encodedLength(maxImageBytes) + 64) {
+            throw new BadRequestException("Each image must be at most "
+                    + (maxImageBytes / (1024 * 1024)) + "MB.");
+        }
+    }
+
+    private static long encodedLength(long bytes) {
+        return (bytes + 2) / 3 * 4;
+    }
+}
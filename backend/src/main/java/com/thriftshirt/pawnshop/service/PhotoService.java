@@ -0,0 +1,95 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thriftshirt.pawnshop.exception.BadRequestException;
+import com.thriftshirt.pawnshop.storage.PhotoReferences;
+
+@Service
+public class PhotoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoService.class);
+
+    @Autowired
+    private StoredImageService storedImageService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PhotoDerivativeService photoDerivativeService;
+
+    @Autowired
+    private PhotoPayloadValidator photoPayloadValidator;
+
+    /**
+     * Move any inline {@code data:} images in a photos value into the image store
+     * and return the value with the stored references or URLs in their place.
+     * URLs and existing references are kept as they are.
+     */
+    public String externalizeInlinePhotos(String photos) {
+        if (photos == null || !photos.contains("data:")) {
+            return photos;
+        }
+        return externalize(photoPayloadValidator.readEntries(photos));
+    }
+
+    /**
+     * Store the inline entries of an already validated photos payload and return
+     * the JSON array to persist.
+     */
+    public String externalize(List<String> entries) {
+        List<String> stored = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            stored.add(storeIfInline(entry));
+        }
+        return toJson(stored);
+    }
+
+    private String storeIfInline(String entry) {
+        if (entry == null || !entry.startsWith("data:")) {
+            return entry;
+        }
+
+        int comma = entry.indexOf(',');
+        if (comma < 0 || !entry.substring(0, comma).endsWith(";base64")) {
+            throw new BadRequestException("Inline photos must be base64 data URIs");
+        }
+
+        byte[] content;
+        try {
+            content = Base64.getMimeDecoder().decode(entry.substring(comma + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Inline photo is not valid base64");
+        }
+
+        try {
+            String stored = storedImageService.store(content, PhotoReferences.dataUriContentType(entry));
+            if (PhotoReferences.isReference(stored)) {
+                photoDerivativeService.generateAsync(PhotoReferences.toPhotoId(stored));
+            }
+            return stored;
+        } catch (IOException e) {
+            logger.error("Failed to store photo: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to store photo", e);
+        }
+    }
+
+    private String toJson(List<String> entries) {
+        try {
+            return objectMapper.writeValueAsString(entries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize photo references", e);
+        }
+    }
+}
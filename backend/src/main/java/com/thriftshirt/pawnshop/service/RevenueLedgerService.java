@@ -0,0 +1,106 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.thriftshirt.pawnshop.entity.Loan;
+import com.thriftshirt.pawnshop.entity.LoanStatus;
+import com.thriftshirt.pawnshop.entity.RevenueLedger;
+import com.thriftshirt.pawnshop.repository.LoanRepository;
+import com.thriftshirt.pawnshop.repository.RevenueLedgerRepository;
+
+@Service
+@Transactional
+public class RevenueLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueLedgerService.class);
+
+    @Autowired
+    private RevenueLedgerRepository revenueLedgerRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Value("${app.branch.code:MAIN}")
+    private String branchCode;
+
+    /**
+     * Add a redeemed loan's amount to today's bucket for this branch.
+     * Runs in the caller's transaction so the ledger commits together with the loan.
+     */
+    public void recordRedemption(LocalDate date, BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) {
+            return;
+        }
+        LocalDate bucketDate = date != null ? date : LocalDate.now();
+
+        revenueLedgerRepository.addToBucket(bucketDate, branchCode, amount, LocalDateTime.now());
+    }
+
+    /**
+     * Total revenue across all branches
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalRevenue() {
+        return revenueLedgerRepository.sumTotalRevenue();
+    }
+
+    /**
+     * Recompute every bucket from PAID loans
+     */
+    public int rebuild() {
+        logger.info("Rebuilding revenue ledger from loan history for branch {}", branchCode);
+
+        Map<LocalDate, BigDecimal> totals = new TreeMap<>();
+        Map<LocalDate, Long> counts = new TreeMap<>();
+
+        List<Object[]> rows = loanRepository.findRevenueColumnsByStatus(LoanStatus.PAID);
+        for (Object[] row : rows) {
+            LocalDate dateRedeemed = (LocalDate) row[0];
+            LocalDate dueDate = (LocalDate) row[1];
+            LocalDate bucketDate = dateRedeemed != null ? dateRedeemed : dueDate != null ? dueDate : LocalDate.now();
+
+            // Reuse the entity's arithmetic so rebuilt totals match incremental ones
+            Loan loan = new Loan();
+            loan.setLoanAmount((BigDecimal) row[2]);
+            loan.setInterestRate((Integer) row[3]);
+            loan.setPenalty((BigDecimal) row[4]);
+
+            totals.merge(bucketDate, loan.calculateTotalRedeemAmount(), BigDecimal::add);
+            counts.merge(bucketDate, 1L, Long::sum);
+        }
+
+        revenueLedgerRepository.deleteAllBuckets();
+        for (Map.Entry<LocalDate, BigDecimal> entry : totals.entrySet()) {
+            RevenueLedger bucket = new RevenueLedger();
+            bucket.setRevenueDate(entry.getKey());
+            bucket.setBranchCode(branchCode);
+            bucket.setTotalRevenue(entry.getValue());
+            bucket.setRedemptionCount(counts.get(entry.getKey()));
+            revenueLedgerRepository.save(bucket);
+        }
+
+        logger.info("✅ Revenue ledger rebuilt: {} paid loans in {} daily buckets", rows.size(), totals.size());
+        return totals.size();
+    }
+
+    /**
+     * Seed the ledger on first start after upgrade, when it is empty but paid loans exist
+     */
+    public void rebuildIfEmpty() {
+        if (revenueLedgerRepository.count() == 0 && loanRepository.countByStatus(LoanStatus.PAID) > 0) {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.thriftshirt.pawnshop.entity.SchedulerLease;
+import com.thriftshirt.pawnshop.repository.SchedulerLeaseRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Database leases for scheduled jobs, so a job runs on one node at a time when
+ * several instances share the database. Each call commits on its own.
+ */
+@Service
+public class SchedulerLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeaseService.class);
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    private String owner;
+
+    @PostConstruct
+    public void init() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        owner = host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Take the named lease for the given duration, or extend it if this node already holds it
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        ensureLeaseRow(name);
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = tx.execute(status -> schedulerLeaseRepository.tryAcquire(name, owner, now, now.plus(ttl)));
+        boolean acquired = updated != null && updated == 1;
+        if (!acquired) {
+            logger.info("Lease {} is held by another node, skipping", name);
+        }
+        return acquired;
+    }
+
+    /**
+     * Release the named lease if this node holds it
+     */
+    public void release(String name) {
+        tx.executeWithoutResult(status -> schedulerLeaseRepository.release(name, owner, LocalDateTime.now()));
+    }
+
+    private void ensureLeaseRow(String name) {
+        if (schedulerLeaseRepository.existsById(name)) {
+            return;
+        }
+        try {
+            tx.executeWithoutResult(status -> {
+                SchedulerLease lease = new SchedulerLease();
+                lease.setLeaseName(name);
+                lease.setLockedUntil(LocalDateTime.now().minusSeconds(1));
+                schedulerLeaseRepository.saveAndFlush(lease);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.thriftshirt.pawnshop.entity.Loan;
+import com.thriftshirt.pawnshop.entity.LoanStatus;
+import com.thriftshirt.pawnshop.entity.PawnRequest;
+import com.thriftshirt.pawnshop.entity.PawnStatus;
+import com.thriftshirt.pawnshop.exception.BadRequestException;
+
+/**
+ * The pawn request and loan state machines. Every status change goes through
+ * here; the entity versions then make the UPDATE conditional on nobody else
+ * having moved the same row first.
+ */
+public final class StatusTransitions {
+
+    private static final Map<PawnStatus, Set<PawnStatus>> PAWN_TRANSITIONS = new EnumMap<>(PawnStatus.class);
+    private static final Map<LoanStatus, Set<LoanStatus>> LOAN_TRANSITIONS = new EnumMap<>(LoanStatus.class);
+
+    static {
+        PAWN_TRANSITIONS.put(PawnStatus.PENDING,
+                EnumSet.of(PawnStatus.OFFER_MADE, PawnStatus.APPROVED, PawnStatus.REJECTED));
+        PAWN_TRANSITIONS.put(PawnStatus.APPROVED, EnumSet.of(PawnStatus.OFFER_MADE, PawnStatus.REJECTED));
+        PAWN_TRANSITIONS.put(PawnStatus.OFFER_MADE, EnumSet.of(PawnStatus.ACCEPTED, PawnStatus.REJECTED));
+        PAWN_TRANSITIONS.put(PawnStatus.ACCEPTED, EnumSet.of(PawnStatus.ACTIVE, PawnStatus.REJECTED));
+        PAWN_TRANSITIONS.put(PawnStatus.OFFER_ACCEPTED, EnumSet.of(PawnStatus.ACTIVE, PawnStatus.REJECTED));
+        PAWN_TRANSITIONS.put(PawnStatus.ACTIVE, EnumSet.of(PawnStatus.REDEEMED, PawnStatus.FORFEITED));
+
+        LOAN_TRANSITIONS.put(LoanStatus.ACTIVE, EnumSet.of(LoanStatus.PAID, LoanStatus.DEFAULTED));
+        LOAN_TRANSITIONS.put(LoanStatus.PAID, EnumSet.of(LoanStatus.ACTIVE)); // Renewal
+    }
+
+    // Pawn statuses that only follow a loan change and cannot be set directly
+    private static final Set<PawnStatus> LOAN_DRIVEN_PAWN_STATUSES = EnumSet.of(PawnStatus.ACTIVE,
+            PawnStatus.REDEEMED, PawnStatus.FORFEITED);
+
+    private StatusTransitions() {
+    }
+
+    /**
+     * Parse a pawn status name from a request, rejecting unknown values
+     */
+    public static PawnStatus parsePawnStatus(String name) {
+        try {
+            return PawnStatus.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown pawn request status: " + name);
+        }
+    }
+
+    /**
+     * Move a pawn request to a new status, or fail if the state machine does not allow it
+     */
+    public static void movePawn(PawnRequest pawnRequest, PawnStatus to) {
+        PawnStatus from = pawnRequest.getStatus();
+        if (from == null || !PAWN_TRANSITIONS.getOrDefault(from, Set.of()).contains(to)) {
+            throw new BadRequestException("Cannot move pawn request from " + from + " to " + to);
+        }
+        pawnRequest.setStatus(to);
+    }
+
+    /**
+     * Admin status override: same rules, but loan-driven statuses must go through the loan operations
+     */
+    public static void movePawnManually(PawnRequest pawnRequest, PawnStatus to) {
+        if (LOAN_DRIVEN_PAWN_STATUSES.contains(to)) {
+            throw new BadRequestException("Status " + to + " can only be set through the loan workflow");
+        }
+        movePawn(pawnRequest, to);
+    }
+
+    /**
+     * Move a loan to a new status, or fail if the state machine does not allow it
+     */
+    public static void moveLoan(Loan loan, LoanStatus to) {
+        LoanStatus from = loan.getStatus();
+        if (from == null || !LOAN_TRANSITIONS.getOrDefault(from, Set.of()).contains(to)) {
+            throw new BadRequestException("Cannot move loan from " + from + " to " + to);
+        }
+        loan.setStatus(to);
+    }
+}
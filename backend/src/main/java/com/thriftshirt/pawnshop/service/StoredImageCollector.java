@@ -0,0 +1,83 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly collection of stored images that no saved record references. Images are
+ * only collected once they have been unreferenced and not re-uploaded for the grace
+ * period, which covers uploads whose form has not been submitted yet. Guarded by a
+ * database lease so only one node collects.
+ */
+@Component
+public class StoredImageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoredImageCollector.class);
+
+    private static final String LEASE_NAME = "stored-image-gc";
+
+    @Autowired
+    private StoredImageService storedImageService;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${app.photos.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.photos.gc.grace-hours:24}")
+    private int graceHours;
+
+    @Value("${app.photos.gc.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.photos.gc.lease-minutes:15}")
+    private int leaseMinutes;
+
+    @Scheduled(cron = "${app.photos.gc.cron:0 15 4 * * *}")
+    public void scheduledCollect() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            collect();
+        } catch (Exception e) {
+            logger.error("Stored image collection failed: ", e);
+        }
+    }
+
+    /**
+     * Run one collection now; returns how many images were deleted
+     */
+    public int collect() {
+        Duration leaseTtl = Duration.ofMinutes(leaseMinutes);
+        if (!schedulerLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return 0;
+        }
+
+        int deleted = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusHours(graceHours);
+            while (true) {
+                int batch = storedImageService.collectUnreferenced(cutoff, batchSize);
+                deleted += batch;
+                // A short batch means the backlog is drained (or only undeletable images remain)
+                if (batch < batchSize || !schedulerLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+                    break;
+                }
+            }
+        } finally {
+            schedulerLeaseService.release(LEASE_NAME);
+        }
+
+        logger.info("✅ Stored image collection finished: {} images deleted", deleted);
+        return deleted;
+    }
+}
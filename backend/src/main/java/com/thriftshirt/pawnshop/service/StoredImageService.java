@@ -0,0 +1,219 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.thriftshirt.pawnshop.entity.StoredImage;
+import com.thriftshirt.pawnshop.repository.StoredImageRepository;
+import com.thriftshirt.pawnshop.storage.ImageStore;
+import com.thriftshirt.pawnshop.storage.PhotoReferences;
+
+/**
+ * Deduplicating front for the image store. Content is hashed on ingest and stored
+ * once; re-uploads of the same bytes return the existing value. Saved values that
+ * point at an image (pawn photos, transaction log photos, profile images) hold a
+ * reference on it, and images nobody references are collected after a grace period.
+ * Images stored before this table existed have no row, or a pinned one once their
+ * content is uploaded again, and are never collected.
+ */
+@Service
+@Transactional
+public class StoredImageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoredImageService.class);
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private PhotoPayloadValidator photoPayloadValidator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Store an image file unless identical content is already stored; returns the stored value.
+     * Runs outside any caller transaction so a slow remote upload never holds one open.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String store(Path file, String contentType) throws IOException {
+        String contentHash = PhotoReferences.sha256Hex(file);
+        Optional<String> existing = findByHash(contentHash);
+        if (existing.isPresent()) {
+            Files.deleteIfExists(file);
+            return existing.get();
+        }
+        long size = Files.size(file);
+        Optional<String> untracked = imageStore.find(contentHash, contentType);
+        if (untracked.isPresent()) {
+            Files.deleteIfExists(file);
+            return register(contentHash, untracked.get(), size, true);
+        }
+        return register(contentHash, imageStore.store(file, contentType), size, false);
+    }
+
+    /**
+     * Store image bytes unless identical content is already stored; returns the stored value
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String store(byte[] content, String contentType) throws IOException {
+        String contentHash = PhotoReferences.sha256Hex(content);
+        Optional<String> existing = findByHash(contentHash);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        Optional<String> untracked = imageStore.find(contentHash, contentType);
+        if (untracked.isPresent()) {
+            return register(contentHash, untracked.get(), content.length, true);
+        }
+        return register(contentHash, imageStore.store(content, contentType), content.length, false);
+    }
+
+    /**
+     * Stored value for content with this SHA-256, if any. Counts as a fresh upload for the grace period.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<String> findByHash(String contentHash) {
+        // Touch first: it waits on a collection of this row in progress and then matches nothing
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            if (storedImageRepository.touch(contentHash, LocalDateTime.now()) == 0) {
+                return Optional.<String>empty();
+            }
+            return storedImageRepository.findById(contentHash).map(StoredImage::getStoredValue);
+        });
+    }
+
+    /**
+     * Record newly tracked content. Content the store already held without a row predates
+     * reference counting, so its row is pinned: older records may point at it uncounted.
+     */
+    private String register(String contentHash, String storedValue, long size, boolean pinned) throws IOException {
+        StoredImage image = new StoredImage();
+        image.setContentHash(contentHash);
+        image.setStoredValue(storedValue);
+        image.setSizeBytes(size);
+        image.setRefCount(0);
+        image.setPinned(pinned);
+        image.setCreatedAt(LocalDateTime.now());
+        image.setLastUploadedAt(image.getCreatedAt());
+        try {
+            storedImageRepository.saveAndFlush(image);
+            return storedValue;
+        } catch (DataIntegrityViolationException e) {
+            // Same content registered concurrently: keep the winner and drop our copy if it differs
+            String winner = storedImageRepository.findById(contentHash)
+                    .map(StoredImage::getStoredValue)
+                    .orElseThrow(() -> e);
+            if (!winner.equals(storedValue)) {
+                imageStore.delete(storedValue);
+            }
+            return winner;
+        }
+    }
+
+    /**
+     * Add a reference to every image in a saved value (a photos JSON array or a single URL)
+     */
+    public void acquire(String value) {
+        adjust(value, 1);
+    }
+
+    /**
+     * Drop the references held by a saved value that is being replaced or deleted
+     */
+    public void release(String value) {
+        adjust(value, -1);
+    }
+
+    private void adjust(String value, int sign) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (String entry : entriesOf(value)) {
+            String key = referenceKey(entry);
+            if (key != null) {
+                counts.merge(key, 1, Integer::sum);
+            }
+        }
+        // Values with no row (legacy images, external URLs) simply match nothing
+        counts.forEach((key, count) -> storedImageRepository.adjustRefCount(key, sign * count));
+    }
+
+    private List<String> entriesOf(String value) {
+        String trimmed = value.trim();
+        if (!trimmed.startsWith("[")) {
+            return List.of(trimmed);
+        }
+        try {
+            return photoPayloadValidator.readEntries(trimmed);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read image references from value: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    // Local store URLs handed out by the upload endpoint count against their photo:<id> row
+    private static String referenceKey(String entry) {
+        if (entry == null || entry.startsWith("data:")) {
+            return null;
+        }
+        String photoId = PhotoReferences.photoIdFromUrl(entry);
+        return photoId != null ? PhotoReferences.toReference(photoId) : entry;
+    }
+
+    /**
+     * Delete up to batchSize images that have been unreferenced since before the cutoff;
+     * returns the number deleted
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int collectUnreferenced(LocalDateTime cutoff, int batchSize) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int deleted = 0;
+        for (StoredImage image : storedImageRepository.findUnreferencedBefore(cutoff, PageRequest.of(0, batchSize))) {
+            try {
+                // The conditional delete loses to any reference or upload since the batch was read, and
+                // holds the row lock while the file goes, so a concurrent upload of the same bytes waits
+                // and then stores them again instead of reusing a file about to disappear
+                Boolean collected = tx.execute(status -> {
+                    if (storedImageRepository.deleteIfUnreferenced(image.getContentHash(), cutoff) == 0) {
+                        return false;
+                    }
+                    try {
+                        imageStore.delete(image.getStoredValue());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return true;
+                });
+                if (Boolean.TRUE.equals(collected)) {
+                    deleted++;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not delete unreferenced image {}: {}", image.getStoredValue(), e.getMessage());
+            }
+        }
+        return deleted;
+    }
+}
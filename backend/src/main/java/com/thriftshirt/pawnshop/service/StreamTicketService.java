@@ -0,0 +1,77 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.thriftshirt.pawnshop.entity.StreamTicket;
+import com.thriftshirt.pawnshop.repository.StreamTicketRepository;
+
+/**
+ * Tickets for the notification stream. Browsers cannot put an Authorization header on an
+ * EventSource request, so the client trades its JWT for a random ticket in an authenticated
+ * POST and puts that in the stream URL instead. A ticket expires within seconds and works
+ * once, so one that ends up in an access log or browser history is already useless.
+ */
+@Service
+@Transactional
+public class StreamTicketService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private StreamTicketRepository streamTicketRepository;
+
+    @Value("${app.notifications.stream.ticket-seconds:30}")
+    private int ticketSeconds;
+
+    /**
+     * Issue a new ticket for the given user
+     */
+    public String issue(String username) {
+        LocalDateTime now = LocalDateTime.now();
+        streamTicketRepository.deleteExpired(now);
+
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        StreamTicket streamTicket = new StreamTicket();
+        streamTicket.setTicketHash(hash(ticket));
+        streamTicket.setUsername(username);
+        streamTicket.setExpiresAt(now.plusSeconds(ticketSeconds));
+        streamTicketRepository.save(streamTicket);
+        return ticket;
+    }
+
+    /**
+     * Consume a ticket; returns the user it was issued to, or empty if it is unknown, expired or already used
+     */
+    public Optional<String> redeem(String ticket) {
+        String ticketHash = hash(ticket);
+        Optional<String> username = streamTicketRepository.findById(ticketHash).map(StreamTicket::getUsername);
+        if (username.isEmpty() || streamTicketRepository.redeem(ticketHash, LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        return username;
+    }
+
+    private static String hash(String ticket) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(ticket.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,33 +1,85 @@
 package com.thriftshirt.pawnshop.service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.thriftshirt.pawnshop.dto.response.TransactionLogPageResponse;
 import com.thriftshirt.pawnshop.entity.TransactionLog;
+import com.thriftshirt.pawnshop.exception.BadRequestException;
 import com.thriftshirt.pawnshop.repository.TransactionLogRepository;
 
 @Service
 @Transactional
 public class TransactionLogService {
 
+    private static final int MAX_LOG_PAGE_SIZE = 500;
+
     @Autowired
     private TransactionLogRepository transactionLogRepository;
 
+    @Autowired
+    private TransactionLogWriter transactionLogWriter;
+
+    @Autowired
+    private StoredImageService storedImageService;
+
+    @Value("${app.audit.async:true}")
+    private boolean asyncAudit;
+
     /**
-     * Get all transaction logs ordered by timestamp descending
+     * Get one page of transaction logs, newest first, continuing after the given cursor.
+     * The cursor is the nextCursor of the previous page, "<timestamp>_<logId>".
      */
-    public List<TransactionLog> getAllLogs() {
-        return transactionLogRepository.findAllByOrderByTimestampDesc();
+    @Transactional(readOnly = true)
+    public TransactionLogPageResponse getLogsPage(String cursor, int limit, String action, Long userId,
+            LocalDateTime from, LocalDateTime to) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_LOG_PAGE_SIZE);
+
+        LocalDateTime cursorTimestamp = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                cursorTimestamp = LocalDateTime.parse(cursor.substring(0, separator));
+                cursorId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<TransactionLog> logs = transactionLogRepository.findPageBefore(
+                action != null && !action.isBlank() ? action : null, userId, from, to,
+                cursorTimestamp, cursorId, PageRequest.of(0, pageSize + 1));
+
+        String nextCursor = null;
+        if (logs.size() > pageSize) {
+            logs = logs.subList(0, pageSize);
+            TransactionLog last = logs.get(pageSize - 1);
+            nextCursor = last.getTimestamp() + "_" + last.getLogId();
+        }
+        return new TransactionLogPageResponse(logs, nextCursor);
     }
 
     /**
-     * Log a new transaction (helper method for other services)
+     * Log a new transaction (helper method for other services).
+     * Recorded in the outbox with the caller's transaction and moved to the log table in
+     * the background, unless app.audit.async=false.
      */
     public void logTransaction(TransactionLog log) {
-        transactionLogRepository.save(log);
+        storedImageService.acquire(log.getPhotos());
+        if (asyncAudit) {
+            transactionLogWriter.submit(log);
+        } else {
+            transactionLogRepository.save(log);
+        }
     }
 
     /**
@@ -44,6 +96,7 @@ public class TransactionLogService {
         return transactionLogRepository.findByLogIdAndUserId(logId, userId)
             .map(log -> {
                 transactionLogRepository.delete(log);
+                storedImageService.release(log.getPhotos());
                 return true;
             })
             .orElse(false);
@@ -53,6 +106,7 @@ public class TransactionLogService {
      * Clear all transaction logs for a specific user
      */
     public void clearUserTransactionHistory(Long userId) {
+        transactionLogRepository.findPhotosByUserId(userId).forEach(storedImageService::release);
         transactionLogRepository.deleteByUserId(userId);
     }
 }
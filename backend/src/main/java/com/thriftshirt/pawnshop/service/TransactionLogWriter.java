@@ -0,0 +1,242 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.thriftshirt.pawnshop.entity.TransactionLog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes transaction logs through an outbox. Each entry is inserted into
+ * transaction_log_outbox in the caller's transaction, so it commits or rolls back
+ * with the change it describes and survives a crash. A background thread moves
+ * committed entries into transaction_log in JDBC batches, keeping the indexed log
+ * table off the request path. Only the node holding the drain lease moves rows.
+ */
+@Component
+public class TransactionLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionLogWriter.class);
+
+    private static final String LEASE_NAME = "transaction-log-outbox";
+
+    private static final String OUTBOX_INSERT_SQL = "INSERT INTO transaction_log_outbox "
+            + "(user_id, log_action, log_timestamp, remarks, item_condition, photos, attempts) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String OUTBOX_SELECT_SQL = "SELECT outbox_id, user_id, log_action, log_timestamp, "
+            + "remarks, item_condition, photos FROM transaction_log_outbox WHERE attempts < ? "
+            + "ORDER BY outbox_id LIMIT ?";
+
+    private static final String INSERT_SQL = "INSERT INTO transaction_log "
+            + "(user_id, log_action, log_timestamp, remarks, item_condition, photos) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String OUTBOX_DELETE_SQL = "DELETE FROM transaction_log_outbox WHERE outbox_id = ?";
+
+    private static final String OUTBOX_FAILED_SQL = "UPDATE transaction_log_outbox "
+            + "SET attempts = attempts + 1, last_error = ? WHERE outbox_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${app.audit.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.audit.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${app.audit.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.audit.lease-seconds:60}")
+    private int leaseSeconds;
+
+    private final Semaphore wakeups = new Semaphore(0);
+
+    private TransactionTemplate tx;
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    private boolean leaseHeld;
+
+    private long nextLeaseCheck;
+
+    @PostConstruct
+    public void start() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        running = true;
+        writerThread = new Thread(this::drainLoop, "transaction-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (leaseHeld) {
+            schedulerLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    /**
+     * Record a log in the outbox as part of the current transaction (if any).
+     * Logs of rolled-back transactions are discarded with it.
+     */
+    public void submit(TransactionLog log) {
+        jdbcTemplate.update(OUTBOX_INSERT_SQL, ps -> {
+            setNullableLong(ps, 1, log.getUser() != null ? log.getUser().getId() : null);
+            ps.setString(2, log.getAction());
+            ps.setTimestamp(3, Timestamp.valueOf(log.getTimestamp() != null ? log.getTimestamp() : LocalDateTime.now()));
+            ps.setString(4, log.getRemarks());
+            ps.setString(5, log.getCondition());
+            ps.setString(6, log.getPhotos());
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeups.release();
+                }
+            });
+        } else {
+            wakeups.release();
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                // Woken by local commits; the timeout picks up entries committed on other nodes
+                wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+                if (!holdsDrainLease()) {
+                    continue;
+                }
+                int drained;
+                do {
+                    drained = drainBatch();
+                } while (running && drained == batchSize && holdsDrainLease());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Transaction log writer failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    // Checked at most twice per lease period, so idle nodes do not hit the lease row every poll
+    private boolean holdsDrainLease() {
+        long now = System.currentTimeMillis();
+        if (now >= nextLeaseCheck) {
+            Duration ttl = Duration.ofSeconds(leaseSeconds);
+            leaseHeld = schedulerLeaseService.tryAcquire(LEASE_NAME, ttl);
+            nextLeaseCheck = now + ttl.toMillis() / 2;
+        }
+        return leaseHeld;
+    }
+
+    /**
+     * Move the next batch of outbox rows into transaction_log; returns the number of rows read
+     */
+    private int drainBatch() {
+        List<OutboxRow> batch = jdbcTemplate.query(OUTBOX_SELECT_SQL, (rs, rowNum) -> {
+            OutboxRow row = new OutboxRow();
+            row.outboxId = rs.getLong("outbox_id");
+            long userId = rs.getLong("user_id");
+            row.userId = rs.wasNull() ? null : userId;
+            row.action = rs.getString("log_action");
+            row.timestamp = rs.getTimestamp("log_timestamp");
+            row.remarks = rs.getString("remarks");
+            row.condition = rs.getString("item_condition");
+            row.photos = rs.getString("photos");
+            return row;
+        }, maxAttempts, batchSize);
+        if (!batch.isEmpty()) {
+            moveBatch(batch);
+        }
+        return batch.size();
+    }
+
+    private void moveBatch(List<OutboxRow> batch) {
+        try {
+            // Insert and delete commit together, so a crash in between never duplicates or loses an entry
+            tx.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> {
+                    setNullableLong(ps, 1, row.userId);
+                    ps.setString(2, row.action);
+                    ps.setTimestamp(3, row.timestamp);
+                    ps.setString(4, row.remarks);
+                    ps.setString(5, row.condition);
+                    ps.setString(6, row.photos);
+                });
+                jdbcTemplate.batchUpdate(OUTBOX_DELETE_SQL, batch, batch.size(),
+                        (ps, row) -> ps.setLong(1, row.outboxId));
+            });
+        } catch (Exception e) {
+            if (batch.size() > 1) {
+                // Isolate the bad row(s) so one failure does not hold back the whole batch
+                for (OutboxRow row : batch) {
+                    moveBatch(List.of(row));
+                }
+                return;
+            }
+            OutboxRow row = batch.get(0);
+            String error = String.valueOf(e.getMessage());
+            jdbcTemplate.update(OUTBOX_FAILED_SQL, error.length() > 500 ? error.substring(0, 500) : error,
+                    row.outboxId);
+            logger.error("Failed to write transaction log {} (outbox row {}), kept in the outbox: {}",
+                    row.action, row.outboxId, error);
+        }
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static final class OutboxRow {
+        private long outboxId;
+        private Long userId;
+        private String action;
+        private Timestamp timestamp;
+        private String remarks;
+        private String condition;
+        private String photos;
+    }
+}
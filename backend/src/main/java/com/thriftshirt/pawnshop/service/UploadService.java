@@ -0,0 +1,124 @@
+package com.thriftshirt.pawnshop.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.thriftshirt.pawnshop.storage.PhotoReferences;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Uploads user files to the image store without holding them on the heap. The
+ * multipart part is moved to a spool file on the request thread, then handed to the
+ * store from a small bounded worker pool; when the pool and its queue are full, new
+ * uploads are rejected instead of piling up.
+ */
+@Service
+public class UploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadService.class);
+
+    @Autowired
+    private StoredImageService storedImageService;
+
+    @Autowired
+    private PhotoDerivativeService photoDerivativeService;
+
+    @Value("${app.uploads.spool-dir:${java.io.tmpdir}/pawnshop-uploads}")
+    private String spoolDir;
+
+    @Value("${app.uploads.workers:4}")
+    private int workers;
+
+    @Value("${app.uploads.queue-capacity:32}")
+    private int queueCapacity;
+
+    private Path spoolRoot;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() throws IOException {
+        spoolRoot = Paths.get(spoolDir).toAbsolutePath().normalize();
+        Files.createDirectories(spoolRoot);
+        deleteLeftoverSpoolFiles();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "upload-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Spool the file to disk and queue it for upload; the future completes with the stored value
+     * (see ImageStore#toUrl for turning it into a client URL).
+     * Throws RejectedExecutionException when the upload queue is full.
+     */
+    public CompletableFuture<String> upload(MultipartFile file) throws IOException {
+        Path spooled = Files.createTempFile(spoolRoot, "upload-", ".part");
+        try {
+            // Renames the container's temp file when possible, otherwise copies it in small buffers
+            file.transferTo(spooled.toFile());
+            return CompletableFuture.supplyAsync(
+                    () -> uploadSpooled(spooled, file.getContentType(), file.getOriginalFilename()), executor);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+    }
+
+    private String uploadSpooled(Path spooled, String contentType, String originalFilename) {
+        try {
+            // Identical content already stored is not sent to the image store again
+            String stored = storedImageService.store(spooled, contentType);
+            if (PhotoReferences.isReference(stored)) {
+                photoDerivativeService.generateAsync(PhotoReferences.toPhotoId(stored));
+            }
+            return stored;
+        } catch (IOException e) {
+            logger.error("Image store upload failed for file: {}", originalFilename, e);
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                logger.warn("Could not delete spooled upload {}: {}", spooled, e.getMessage());
+            }
+        }
+    }
+
+    private void deleteLeftoverSpoolFiles() throws IOException {
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolRoot, "upload-*.part")) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+}
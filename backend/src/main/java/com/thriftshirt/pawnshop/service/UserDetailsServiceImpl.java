@@ -9,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.thriftshirt.pawnshop.entity.User;
 import com.thriftshirt.pawnshop.repository.UserRepository;
+import com.thriftshirt.pawnshop.security.PrincipalCache;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -16,6 +17,9 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
@@ -24,4 +28,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         
         return user;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Resolve the principal for an authenticated token subject (always a username),
+     * served from the principal cache when possible. The result is a detached copy
+     * without password or relationships.
+     */
+    public UserDetails loadAuthenticatedPrincipal(String username) throws UsernameNotFoundException {
+        return principalCache.getOrLoad(username, key -> userRepository.findByUsername(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + key)));
+    }
+}
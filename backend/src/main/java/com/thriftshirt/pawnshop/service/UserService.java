@@ -12,6 +12,7 @@ import com.thriftshirt.pawnshop.entity.TransactionLog;
 import com.thriftshirt.pawnshop.entity.User;
 import com.thriftshirt.pawnshop.exception.ResourceNotFoundException;
 import com.thriftshirt.pawnshop.repository.UserRepository;
+import com.thriftshirt.pawnshop.security.PrincipalCache;
 
 @Service
 @Transactional
@@ -25,14 +26,21 @@ public class UserService {
     @Autowired
     private TransactionLogService transactionLogService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
     /**
      * Get all users (for Admin)
      */
     public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new RuntimeException("User not found with id: " + userId);
-        }
-        userRepository.deleteById(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        userRepository.delete(user);
+        principalCache.invalidate(user.getUsername());
+        adminStatsService.invalidate();
     }
 
     public List<User> getAllUsers() {
@@ -62,6 +70,7 @@ public class UserService {
         }
 
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
 
         // Log the action
         TransactionLog log = new TransactionLog();
@@ -0,0 +1,51 @@
+package com.thriftshirt.pawnshop.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+
+/**
+ * Uploads images to Cloudinary; stored values are the returned secure URLs.
+ */
+@Component
+@ConditionalOnProperty(name = "app.images.backend", havingValue = "cloudinary")
+public class CloudinaryImageStore implements ImageStore {
+
+    // Delivery URL of an untransformed upload: .../image/upload/v<version>/<public_id>.<format>
+    private static final Pattern UPLOAD_URL = Pattern.compile(".*/image/upload/v\\d+/(.+)\\.[A-Za-z0-9]+");
+
+    @Autowired
+    private Cloudinary cloudinary;
+
+    @Override
+    public String store(Path file, String contentType) throws IOException {
+        // The Cloudinary client streams File bodies, so memory use does not grow with the file size
+        return secureUrl(cloudinary.uploader().upload(file.toFile(), ObjectUtils.emptyMap()));
+    }
+
+    @Override
+    public String store(byte[] content, String contentType) throws IOException {
+        return secureUrl(cloudinary.uploader().upload(content, ObjectUtils.emptyMap()));
+    }
+
+    @Override
+    public void delete(String stored) throws IOException {
+        Matcher matcher = stored != null ? UPLOAD_URL.matcher(stored) : null;
+        if (matcher != null && matcher.matches()) {
+            cloudinary.uploader().destroy(matcher.group(1), ObjectUtils.emptyMap());
+        }
+    }
+
+    private static String secureUrl(Map<?, ?> uploadResult) {
+        return (String) uploadResult.get("secure_url");
+    }
+}
@@ -0,0 +1,45 @@
+package com.thriftshirt.pawnshop.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Backend that user images (uploads and pawn item photos) are written to.
+ * A stored image is identified by the value returned from {@code store}: either a
+ * {@code photo:<id>} reference for images kept by this server, or an absolute URL
+ * for images hosted elsewhere. Selected with {@code app.images.backend}.
+ */
+public interface ImageStore {
+
+    /**
+     * Store an image file and return its stored value. The store may move the file;
+     * callers should delete it afterwards if it is still there.
+     */
+    String store(Path file, String contentType) throws IOException;
+
+    /**
+     * Store image bytes already in memory and return its stored value.
+     */
+    String store(byte[] content, String contentType) throws IOException;
+
+    /**
+     * Stored value of identical content this store already holds, if it can tell without
+     * storing it again (content-addressed stores only).
+     */
+    default Optional<String> find(String contentHash, String contentType) {
+        return Optional.empty();
+    }
+
+    /**
+     * Delete a stored image. Values this store does not recognise are ignored.
+     */
+    void delete(String stored) throws IOException;
+
+    /**
+     * URL a client can load a stored value from, given the API base URL of the current request.
+     */
+    default String toUrl(String stored, String baseUrl) {
+        return stored;
+    }
+}
@@ -0,0 +1,39 @@
+package com.thriftshirt.pawnshop.storage;
+
+/**
+ * Downscaled renditions generated for every stored photo. Derivatives are JPEGs
+ * that fit within a {@code maxEdge} square, keeping the aspect ratio.
+ */
+public enum ImageVariant {
+    THUMB("thumb", 240, 0.75f),
+    PREVIEW("preview", 1024, 0.82f);
+
+    private final String suffix;
+    private final int maxEdge;
+    private final float quality;
+
+    ImageVariant(String suffix, int maxEdge, float quality) {
+        this.suffix = suffix;
+        this.maxEdge = maxEdge;
+        this.quality = quality;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+
+    public float getQuality() {
+        return quality;
+    }
+
+    /**
+     * Equivalent Cloudinary delivery transformation, for photos hosted there
+     */
+    public String cloudinaryTransformation() {
+        return "c_limit,w_" + maxEdge + ",h_" + maxEdge + ",q_auto,f_auto";
+    }
+}
@@ -0,0 +1,51 @@
+package com.thriftshirt.pawnshop.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps images in the local content-addressed photo store, so uploads need no
+ * network round trip. Stored values are {@code photo:<id>} references.
+ */
+@Component
+@ConditionalOnProperty(name = "app.images.backend", havingValue = "local", matchIfMissing = true)
+public class LocalDiskImageStore implements ImageStore {
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Override
+    public String store(Path file, String contentType) throws IOException {
+        return PhotoReferences.toReference(photoStore.store(file, contentType));
+    }
+
+    @Override
+    public String store(byte[] content, String contentType) throws IOException {
+        return PhotoReferences.toReference(photoStore.store(content, contentType));
+    }
+
+    @Override
+    public Optional<String> find(String contentHash, String contentType) {
+        String photoId = contentHash + "." + PhotoReferences.extensionFor(contentType);
+        return photoStore.exists(photoId) ? Optional.of(PhotoReferences.toReference(photoId)) : Optional.empty();
+    }
+
+    @Override
+    public void delete(String stored) throws IOException {
+        if (PhotoReferences.isReference(stored)) {
+            photoStore.delete(PhotoReferences.toPhotoId(stored));
+        }
+    }
+
+    @Override
+    public String toUrl(String stored, String baseUrl) {
+        return PhotoReferences.isReference(stored)
+                ? baseUrl + photoStore.publicPath(PhotoReferences.toPhotoId(stored))
+                : stored;
+    }
+}
@@ -0,0 +1,159 @@
+package com.thriftshirt.pawnshop.storage;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Photo store on the local filesystem. Files live under
+ * {@code <root>/<first two hex chars>/<photoId>} so no single directory grows unbounded.
+ */
+@Component
+public class LocalDiskPhotoStore implements PhotoStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalDiskPhotoStore.class);
+
+    private final Path root;
+
+    public LocalDiskPhotoStore(@Value("${app.photos.dir:uploads/photos}") String rootDir) {
+        this.root = Paths.get(rootDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String store(byte[] content, String contentType) throws IOException {
+        String photoId = PhotoReferences.photoId(content, contentType);
+        Path target = resolve(photoId);
+        if (Files.exists(target)) {
+            return photoId;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            if (!Files.exists(target)) {
+                throw e;
+            }
+        }
+        logger.debug("Stored photo {} ({} bytes)", photoId, content.length);
+        return photoId;
+    }
+
+    @Override
+    public String store(Path source, String contentType) throws IOException {
+        String photoId = PhotoReferences.photoId(source, contentType);
+        Path target = resolve(photoId);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(source);
+            return photoId;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Source is on another filesystem: copy channel-to-channel next to the target, then rename
+            Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                    FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long size = in.size();
+                for (long position = 0; position < size;) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            } catch (IOException copyFailure) {
+                Files.deleteIfExists(temp);
+                throw copyFailure;
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException moveFailure) {
+                Files.deleteIfExists(temp);
+                if (!Files.exists(target)) {
+                    throw moveFailure;
+                }
+            }
+            Files.deleteIfExists(source);
+        }
+        logger.debug("Stored photo {} from file", photoId);
+        return photoId;
+    }
+
+    @Override
+    public boolean exists(String photoId) {
+        return PhotoReferences.isValidPhotoId(photoId) && Files.exists(resolve(photoId));
+    }
+
+    @Override
+    public InputStream open(String photoId) throws IOException {
+        if (!exists(photoId)) {
+            throw new FileNotFoundException("Photo not found: " + photoId);
+        }
+        return Files.newInputStream(resolve(photoId));
+    }
+
+    @Override
+    public void delete(String photoId) throws IOException {
+        for (ImageVariant variant : ImageVariant.values()) {
+            Files.deleteIfExists(resolveDerivative(photoId, variant));
+        }
+        Files.deleteIfExists(resolve(photoId));
+        logger.debug("Deleted photo {}", photoId);
+    }
+
+    @Override
+    public String publicPath(String photoId) {
+        return "/uploads/photos/" + photoId.substring(0, 2) + "/" + photoId;
+    }
+
+    @Override
+    public void storeDerivative(String photoId, ImageVariant variant, byte[] content) throws IOException {
+        Path target = resolveDerivative(photoId, variant);
+        Path temp = Files.createTempFile(target.getParent(), ".derivative-", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        logger.debug("Stored {} of photo {} ({} bytes)", variant.getSuffix(), photoId, content.length);
+    }
+
+    @Override
+    public boolean hasDerivative(String photoId, ImageVariant variant) {
+        return PhotoReferences.isValidPhotoId(photoId) && Files.exists(resolveDerivative(photoId, variant));
+    }
+
+    @Override
+    public String derivativePublicPath(String photoId, ImageVariant variant) {
+        return publicPath(photoId) + "." + variant.getSuffix() + ".jpg";
+    }
+
+    // Derivatives sit next to the original: <shard>/<photoId>.<variant>.jpg
+    private Path resolveDerivative(String photoId, ImageVariant variant) {
+        Path original = resolve(photoId);
+        return original.resolveSibling(photoId + "." + variant.getSuffix() + ".jpg");
+    }
+
+    private Path resolve(String photoId) {
+        if (!PhotoReferences.isValidPhotoId(photoId)) {
+            throw new IllegalArgumentException("Invalid photo ID: " + photoId);
+        }
+        return root.resolve(photoId.substring(0, 2)).resolve(photoId);
+    }
+}
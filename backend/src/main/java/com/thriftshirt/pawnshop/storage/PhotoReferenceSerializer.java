@@ -0,0 +1,63 @@
+package com.thriftshirt.pawnshop.storage;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * Writes a photos JSON string with every {@code photo:<id>} reference expanded
+ * to an absolute URL, so clients can keep using the entries as image sources.
+ */
+public class PhotoReferenceSerializer extends JsonSerializer<String> {
+
+    private static final String QUOTED_PREFIX = "\"" + PhotoReferences.PREFIX;
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeString(expand(value));
+    }
+
+    private String expand(String photos) {
+        if (photos == null || !photos.contains(PhotoReferences.PREFIX)) {
+            return photos;
+        }
+
+        String baseUrl = RequestContextHolder.getRequestAttributes() != null
+                ? ServletUriComponentsBuilder.fromCurrentContextPath().toUriString()
+                : "";
+
+        if (PhotoReferences.isReference(photos)) {
+            return baseUrl + photoStore.publicPath(PhotoReferences.toPhotoId(photos));
+        }
+
+        StringBuilder out = new StringBuilder(photos.length() + 64);
+        int from = 0;
+        int start;
+        while ((start = photos.indexOf(QUOTED_PREFIX, from)) >= 0) {
+            int idStart = start + QUOTED_PREFIX.length();
+            int end = photos.indexOf('"', idStart);
+            if (end < 0) {
+                break;
+            }
+            String photoId = photos.substring(idStart, end);
+            out.append(photos, from, start + 1);
+            if (PhotoReferences.isValidPhotoId(photoId)) {
+                out.append(baseUrl).append(photoStore.publicPath(photoId));
+            } else {
+                out.append(PhotoReferences.PREFIX).append(photoId);
+            }
+            from = end;
+        }
+        out.append(photos, from, photos.length());
+        return out.toString();
+    }
+}
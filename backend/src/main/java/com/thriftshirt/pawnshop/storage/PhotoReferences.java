@@ -0,0 +1,140 @@
+package com.thriftshirt.pawnshop.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Helpers for the {@code photo:<id>} references stored in the photos columns
+ * in place of inline image data.
+ */
+public final class PhotoReferences {
+
+    public static final String PREFIX = "photo:";
+
+    private static final Pattern PHOTO_ID = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]{1,5}");
+
+    // URL of an original in the local photo store, as handed out by the upload endpoint
+    private static final Pattern PHOTO_URL = Pattern.compile(".*/uploads/photos/[0-9a-f]{2}/([0-9a-f]{64}\\.[a-z0-9]{1,5})");
+
+    private PhotoReferences() {
+    }
+
+    public static String toReference(String photoId) {
+        return PREFIX + photoId;
+    }
+
+    public static boolean isReference(String value) {
+        return value != null && value.startsWith(PREFIX);
+    }
+
+    public static String toPhotoId(String reference) {
+        return reference.substring(PREFIX.length());
+    }
+
+    /**
+     * Photo ID of a local photo store URL, or null if the value is not one
+     */
+    public static String photoIdFromUrl(String url) {
+        if (url == null || !url.contains("/uploads/photos/")) {
+            return null;
+        }
+        Matcher matcher = PHOTO_URL.matcher(url);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    public static boolean isValidPhotoId(String photoId) {
+        return photoId != null && PHOTO_ID.matcher(photoId).matches();
+    }
+
+    /**
+     * Compute the photo ID for a set of bytes
+     */
+    public static String photoId(byte[] content, String contentType) {
+        return sha256Hex(content) + "." + extensionFor(contentType);
+    }
+
+    /**
+     * Compute the photo ID for a file
+     */
+    public static String photoId(Path file, String contentType) throws IOException {
+        return sha256Hex(file) + "." + extensionFor(contentType);
+    }
+
+    /**
+     * SHA-256 of a file, read in fixed-size chunks so large files are never held in memory
+     */
+    public static String sha256Hex(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static String sha256Hex(byte[] content) {
+        return HexFormat.of().formatHex(sha256().digest(content));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Map an image MIME type to the file extension used for stored photos
+     */
+    public static String extensionFor(String contentType) {
+        if (contentType == null) {
+            return "img";
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int semicolon = type.indexOf(';');
+        if (semicolon >= 0) {
+            type = type.substring(0, semicolon);
+        }
+        switch (type.trim()) {
+            case "image/jpeg":
+            case "image/jpg":
+                return "jpg";
+            case "image/png":
+                return "png";
+            case "image/webp":
+                return "webp";
+            case "image/gif":
+                return "gif";
+            case "image/avif":
+                return "avif";
+            default:
+                return "img";
+        }
+    }
+
+    /**
+     * Decode the MIME type of a {@code data:} URI, e.g. {@code image/png}
+     */
+    public static String dataUriContentType(String dataUri) {
+        int end = dataUri.indexOf(';');
+        int comma = dataUri.indexOf(',');
+        if (end < 0 || (comma >= 0 && comma < end)) {
+            end = comma;
+        }
+        return end > 5 ? dataUri.substring(5, end) : null;
+    }
+}
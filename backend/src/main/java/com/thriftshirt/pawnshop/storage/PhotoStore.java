@@ -0,0 +1,59 @@
+package com.thriftshirt.pawnshop.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Content-addressed storage for pawn item photos. Photos are identified by the
+ * SHA-256 of their bytes plus a file extension, e.g. {@code 3f2a...9c.jpg}.
+ */
+public interface PhotoStore {
+
+    /**
+     * Store photo bytes and return their photo ID. Storing identical bytes twice
+     * returns the same ID and keeps a single copy.
+     */
+    String store(byte[] content, String contentType) throws IOException;
+
+    /**
+     * Store a photo from a file without reading it into memory. The file is moved
+     * into the store, or deleted if the store already holds identical bytes.
+     */
+    String store(Path source, String contentType) throws IOException;
+
+    /**
+     * Check whether a photo with this ID exists.
+     */
+    boolean exists(String photoId);
+
+    /**
+     * Open a stored photo for reading.
+     */
+    InputStream open(String photoId) throws IOException;
+
+    /**
+     * Delete a stored photo and its derived renditions.
+     */
+    void delete(String photoId) throws IOException;
+
+    /**
+     * Path, relative to the API context path, that serves this photo.
+     */
+    String publicPath(String photoId);
+
+    /**
+     * Store a derived rendition of a stored photo next to the original.
+     */
+    void storeDerivative(String photoId, ImageVariant variant, byte[] content) throws IOException;
+
+    /**
+     * Check whether a derived rendition of this photo exists.
+     */
+    boolean hasDerivative(String photoId, ImageVariant variant);
+
+    /**
+     * Path, relative to the API context path, that serves a derived rendition.
+     */
+    String derivativePublicPath(String photoId, ImageVariant variant);
+}
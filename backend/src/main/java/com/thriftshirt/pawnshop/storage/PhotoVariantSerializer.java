@@ -0,0 +1,58 @@
+package com.thriftshirt.pawnshop.storage;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.thriftshirt.pawnshop.service.PhotoDerivativeService;
+
+/**
+ * Writes a photos JSON string as the URLs of one derived variant (see
+ * PhotoDerivativeService#variantUrls). Subclasses pick the variant.
+ */
+public abstract class PhotoVariantSerializer extends JsonSerializer<String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoVariantSerializer.class);
+
+    @Autowired
+    private PhotoDerivativeService photoDerivativeService;
+
+    private final ImageVariant variant;
+
+    protected PhotoVariantSerializer(ImageVariant variant) {
+        this.variant = variant;
+    }
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        String baseUrl = RequestContextHolder.getRequestAttributes() != null
+                ? ServletUriComponentsBuilder.fromCurrentContextPath().toUriString()
+                : "";
+        try {
+            gen.writeString(photoDerivativeService.variantUrls(value, variant, baseUrl));
+        } catch (RuntimeException e) {
+            // Unparseable legacy value: leave it out rather than fail the whole response
+            logger.debug("Could not map photos to {} URLs: {}", variant.getSuffix(), e.getMessage());
+            gen.writeNull();
+        }
+    }
+
+    public static class Thumbnails extends PhotoVariantSerializer {
+        public Thumbnails() {
+            super(ImageVariant.THUMB);
+        }
+    }
+
+    public static class Previews extends PhotoVariantSerializer {
+        public Previews() {
+            super(ImageVariant.PREVIEW);
+        }
+    }
+}
@@ -64,33 +64,91 @@ const Header = () => {
   }, []);
 
   const [notifications, setNotifications] = useState([]);
+  // Server-side unread total; the loaded feed is only the newest page, so it cannot be counted locally
+  const [unreadCount, setUnreadCount] = useState(0);
 
   const fetchNotifications = async () => {
     try {
       if (apiService.auth.isAuthenticated()) {
-        const response = await apiService.notifications.getAll();
+        const [response, unread] = await Promise.all([
+          apiService.notifications.getAll(),
+          apiService.notifications.getUnreadCount(),
+        ]);
         if (response.success) {
           setNotifications(response.data);
         }
+        if (unread.success) {
+          setUnreadCount(Number(unread.data) || 0);
+        }
       }
     } catch (error) {
       console.error('Failed to fetch notifications:', error);
     }
   };
 
-  // Poll for notifications every 30 seconds
+  // Load notifications once, then receive new ones over the push stream
   useEffect(() => {
-    fetchNotifications();
-    const interval = setInterval(fetchNotifications, 30000);
-    return () => clearInterval(interval);
-  }, []);
+    if (!apiService.auth.isAuthenticated() || typeof EventSource === 'undefined') {
+      fetchNotifications();
+      const interval = setInterval(fetchNotifications, 30000);
+      return () => clearInterval(interval);
+    }
 
-  const unreadCount = notifications.filter(n => !n.read).length;
+    let stream = null;
+    let retryTimer = null;
+    let cancelled = false;
+
+    const connect = async () => {
+      try {
+        stream = await apiService.notifications.openStream();
+      } catch (error) {
+        console.error('Failed to open notification stream:', error);
+        retryTimer = setTimeout(connect, 5000);
+        return;
+      }
+      if (cancelled) {
+        stream.close();
+        return;
+      }
+      stream.addEventListener('notification', (event) => {
+        const notification = JSON.parse(event.data);
+        setNotifications(prev => [notification, ...prev.filter(n => n.notifId !== notification.notifId)]);
+        if (!notification.read) {
+          setUnreadCount(count => count + 1);
+        }
+      });
+      // Sent by the server when the stream opens
+      stream.addEventListener('unread-count', (event) => {
+        setUnreadCount(Number(event.data) || 0);
+      });
+      // Fires on every (re)connect, so nothing missed while disconnected is lost
+      stream.addEventListener('open', fetchNotifications);
+      // Tickets are single-use, so reconnect with a fresh one instead of letting EventSource retry the old URL
+      stream.addEventListener('error', () => {
+        stream.close();
+        if (!cancelled) {
+          retryTimer = setTimeout(connect, 5000);
+        }
+      });
+    };
+
+    connect();
+    return () => {
+      cancelled = true;
+      clearTimeout(retryTimer);
+      if (stream) {
+        stream.close();
+      }
+    };
+  }, []);
 
   const markAsRead = async (id) => {
     try {
       await apiService.notifications.markAsRead(id);
       // Optimistic update
+      if (notifications.some(n => n.notifId === id && !n.read)) {
+        setUnreadCount(count => Math.max(0, count - 1));
+      }
       setNotifications(prev =>
         prev.map(n => n.notifId === id ? { ...n, read: true } : n)
       );
@@ -104,6 +162,7 @@ const Header = () => {
       await apiService.notifications.markAllAsRead();
       // Optimistic update
       setNotifications(prev => prev.map(n => ({ ...n, read: true })));
+      setUnreadCount(0);
       notifyInfo('All notifications marked as read');
     } catch (error) {
       console.error('Error marking all as read:', error);
@@ -113,6 +172,9 @@ const Header = () => {
   const deleteNotification = async (id) => {
     try {
       await apiService.notifications.delete(id);
+      if (notifications.some(n => n.notifId === id && !n.read)) {
+        setUnreadCount(count => Math.max(0, count - 1));
+      }
       setNotifications(prev => prev.filter(n => n.notifId !== id));
     } catch (error) {
       console.error('Error deleting notification:', error);
@@ -67,7 +67,7 @@ function AdminDashboard() {
         // Use Promise.allSettled to prevent one failure from breaking all stats
         const results = await Promise.allSettled([
           apiService.admin.getAllUsers(),
-          apiService.admin.getActiveLoans(),
+          apiService.admin.getActiveLoans({ size: 1 }),
           apiService.admin.getAllPawnRequests(),
           apiService.admin.getDashboardStats()
         ]);
@@ -76,7 +76,8 @@ function AdminDashboard() {
 
         // Calculate stats
         const totalUsers = usersResult.status === 'fulfilled' ? (usersResult.value.data?.length || 0) : 0;
-        const activeLoans = loansResult.status === 'fulfilled' ? (loansResult.value.data?.length || 0) : 0;
+        // The list is paged, so count from the total header rather than the rows returned
+        const activeLoans = loansResult.status === 'fulfilled' ? (loansResult.value.totalCount || 0) : 0;
 
         // Pawn Requests
         const allRequests = requestsResult.status === 'fulfilled' ? (requestsResult.value.data || []) : [];
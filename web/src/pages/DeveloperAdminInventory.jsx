@@ -3,6 +3,7 @@ import { useNavigate } from 'react-router-dom';
 import useAuth from '../hooks/useAuth';
 import useNotify from '../hooks/useNotify';
 import ImageModal from '../components/ImageModal';
+import { resolvePhotoVariants } from '../utils/photoUtils';
 import logo from '../assets/images/logo.png';
 import '../styles/DeveloperAdmin.css';
 
@@ -42,17 +43,7 @@ function DeveloperAdminInventory() {
     };
 
     const handleViewImages = (item) => {
-        let images = [];
-        try {
-            if (item.photos && typeof item.photos === 'string') {
-                const parsed = JSON.parse(item.photos);
-                images = Array.isArray(parsed) ? parsed : [item.photos];
-            } else if (Array.isArray(item.photos)) {
-                images = item.photos;
-            }
-        } catch (error) {
-            console.error('Error parsing photos:', error);
-        }
+        let images = resolvePhotoVariants(item.previews, item.photos);
         
         if (images.length === 0) {
             images = [`https://via.placeholder.com/400x400?text=${encodeURIComponent(item.itemName)}`];
@@ -136,8 +127,7 @@ function DeveloperAdminInventory() {
                                                 {item.photos ? (
                                                     (() => {
                                                         try {
-                                                            const parsed = JSON.parse(item.photos);
-                                                            const urls = Array.isArray(parsed) ? parsed : [item.photos];
+                                                            const urls = resolvePhotoVariants(item.thumbnails, item.photos);
                                                             return (
                                                                 <img 
                                                                     src={urls[0]} 
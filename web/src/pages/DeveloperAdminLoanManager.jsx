@@ -8,6 +8,8 @@ import apiService from '../services/apiService';
 import logo from '../assets/images/logo.png';
 import '../styles/DeveloperAdminLoanManager.css';
 
+const PAGE_SIZE = 50;
+
 function DeveloperAdminLoanManager() {
     useAuth('ADMIN');
 
@@ -15,19 +17,30 @@ function DeveloperAdminLoanManager() {
     const { notifySuccess, notifyError } = useNotify();
     const [loans, setLoans] = useState([]);
     const [loading, setLoading] = useState(true);
+    const [page, setPage] = useState(0);
+    const [totalCount, setTotalCount] = useState(0);
+
+    const totalPages = Math.max(1, Math.ceil(totalCount / PAGE_SIZE));
 
     useEffect(() => {
         fetchLoans();
-    }, []);
+    }, [page]);
 
     const fetchLoans = async () => {
         try {
             setLoading(true);
-            const response = await apiService.admin.getActiveLoans();
+            const response = await apiService.admin.getActiveLoans({ page, size: PAGE_SIZE });
             if (response && response.data) {
+                // Step back if paying or forfeiting emptied the last page
+                if (response.data.length === 0 && page > 0) {
+                    setPage(page - 1);
+                    return;
+                }
                 setLoans(response.data);
+                setTotalCount(response.totalCount);
             } else {
                 setLoans([]);
+                setTotalCount(0);
             }
         } catch (error) {
             console.error('Error fetching loans:', error);
@@ -210,6 +223,28 @@ function DeveloperAdminLoanManager() {
                             </table>
                         </div>
                     )}
+
+                    {!loading && totalCount > PAGE_SIZE && (
+                        <div className="loan-manager-pagination">
+                            <button
+                                className="loan-manager-page-btn"
+                                onClick={() => setPage(page - 1)}
+                                disabled={page === 0}
+                            >
+                                ← Previous
+                            </button>
+                            <span className="loan-manager-page-info">
+                                Page {page + 1} of {totalPages} ({totalCount} loans)
+                            </span>
+                            <button
+                                className="loan-manager-page-btn"
+                                onClick={() => setPage(page + 1)}
+                                disabled={page + 1 >= totalPages}
+                            >
+                                Next →
+                            </button>
+                        </div>
+                    )}
                 </div>
             </main>
         </div>
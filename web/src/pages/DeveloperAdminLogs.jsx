@@ -8,6 +8,8 @@ import '../styles/DeveloperAdminLogs.css';
 function DeveloperAdminLogs() {
     const [logs, setLogs] = useState([]);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
+    const [nextCursor, setNextCursor] = useState(null);
     const [filter, setFilter] = useState('');
     const navigate = useNavigate();
     const { notifyError } = useNotify();
@@ -18,21 +20,28 @@ function DeveloperAdminLogs() {
         fetchLogs();
     }, []);
 
-    const fetchLogs = async () => {
+    const fetchLogs = async (cursor) => {
         try {
             const apiService = await import('../services/apiService');
-            const response = await apiService.default.admin.getLogs();
+            const response = await apiService.default.admin.getLogs({ cursor });
             if (response.success && response.data) {
-                setLogs(response.data);
+                setLogs(prev => (cursor ? [...prev, ...response.data] : response.data));
+                setNextCursor(response.nextCursor);
             }
         } catch (error) {
             console.error('Error fetching logs:', error);
             notifyError('Failed to load activity logs');
         } finally {
             setLoading(false);
+            setLoadingMore(false);
         }
     };
 
+    const handleLoadMore = () => {
+        setLoadingMore(true);
+        fetchLogs(nextCursor);
+    };
+
     const handleBack = () => {
         navigate('/admin/dashboard');
     };
@@ -72,7 +81,7 @@ function DeveloperAdminLogs() {
                             onChange={(e) => setFilter(e.target.value)}
                         />
                         <div className="logs-count">
-                            {filteredLogs.length} logs
+                            {filteredLogs.length} logs{nextCursor ? ' loaded' : ''}
                         </div>
                     </div>
 
@@ -136,6 +145,18 @@ function DeveloperAdminLogs() {
                             </table>
                         )}
                     </div>
+
+                    {!loading && nextCursor && (
+                        <div className="logs-load-more">
+                            <button
+                                className="logs-load-more-btn"
+                                onClick={handleLoadMore}
+                                disabled={loadingMore}
+                            >
+                                {loadingMore ? 'Loading...' : 'Load older logs'}
+                            </button>
+                        </div>
+                    )}
                 </div>
             </main>
         </div>
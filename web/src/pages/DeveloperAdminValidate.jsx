@@ -4,6 +4,7 @@ import useAuth from '../hooks/useAuth';
 import useNotify from '../hooks/useNotify';
 import ImageModal from '../components/ImageModal';
 import apiService from '../services/apiService';
+import { resolvePhotoVariants } from '../utils/photoUtils';
 import logo from '../assets/images/logo.png';
 import '../styles/DeveloperAdminValidate.css';
 
@@ -255,7 +256,7 @@ function DeveloperAdminValidate() {
                                         </tr>
                                     ) : (
                                         (activeTab === 'assessment' ? pendingRequests : acceptedRequests).map(req => {
-                                            const images = parseImages(req.photos);
+                                            const images = resolvePhotoVariants(req.thumbnails, req.photos);
                                             const mainImage = images.length > 0 ? images[0] : null;
 
                                             return (
@@ -266,7 +267,7 @@ function DeveloperAdminValidate() {
                                                                 src={mainImage}
                                                                 alt={req.itemName}
                                                                 className="validate-thumbnail"
-                                                                onClick={() => handleViewImages(req.photos, req.itemName)}
+                                                                onClick={() => handleViewImages(resolvePhotoVariants(req.previews, req.photos), req.itemName)}
                                                             />
                                                         ) : (
                                                             <div className="validate-no-photo">No Photo</div>
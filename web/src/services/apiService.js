@@ -61,6 +61,19 @@ const handleResponse = async (response) => {
   return data;
 };
 
+// Hex SHA-256 of a file, or null where Web Crypto is unavailable (e.g. plain http)
+const sha256Hex = async (file) => {
+  if (!globalThis.crypto?.subtle || !file?.arrayBuffer) {
+    return null;
+  }
+  try {
+    const digest = await crypto.subtle.digest('SHA-256', await file.arrayBuffer());
+    return Array.from(new Uint8Array(digest), (b) => b.toString(16).padStart(2, '0')).join('');
+  } catch {
+    return null;
+  }
+};
+
 // API Service
 export const apiService = {
   // Authentication endpoints
@@ -296,12 +309,18 @@ export const apiService = {
       return await handleResponse(response);
     },
 
-    getLogs: async () => {
-      const response = await fetch(`${API_BASE_URL}/admin/logs`, {
+    // One page of logs, newest first; pass the returned nextCursor to fetch the next page
+    getLogs: async ({ cursor, limit = 100 } = {}) => {
+      const params = new URLSearchParams({ limit });
+      if (cursor) {
+        params.set('cursor', cursor);
+      }
+      const response = await fetch(`${API_BASE_URL}/admin/logs?${params}`, {
         method: 'GET',
         headers: getAuthHeaders(),
       });
-      return await handleResponse(response);
+      const data = await handleResponse(response);
+      return { ...data, nextCursor: response.headers.get('X-Next-Cursor') };
     },
 
     getAllUsers: async () => {
@@ -381,11 +400,14 @@ export const apiService = {
       return await handleResponse(response);
     },
 
-    getActiveLoans: async () => {
-      const response = await fetch(`${API_BASE_URL}/admin/loans/active`, {
+    // One page of active loans; totalCount comes from the X-Total-Count header
+    getActiveLoans: async ({ page = 0, size = 50 } = {}) => {
+      const params = new URLSearchParams({ page, size });
+      const response = await fetch(`${API_BASE_URL}/admin/loans/active?${params}`, {
         headers: getAuthHeaders(),
       });
-      return await handleResponse(response);
+      const data = await handleResponse(response);
+      return { ...data, totalCount: Number(response.headers.get('X-Total-Count')) || 0 };
     },
 
     processLoanPayment: async (loanId) => {
@@ -496,6 +518,18 @@ export const apiService = {
 
   // File Upload
   upload: async (file) => {
+    // Skip sending the bytes when the server already has this exact file
+    const hash = await sha256Hex(file);
+    if (hash) {
+      const existing = await fetch(`${API_BASE_URL}/upload/${hash}`, {
+        method: 'GET',
+        headers: getAuthHeaders(),
+      });
+      if (existing.ok) {
+        return await handleResponse(existing);
+      }
+    }
+
     const formData = new FormData();
     formData.append('file', file);
 
@@ -550,6 +584,17 @@ export const apiService = {
         headers: getAuthHeaders(),
       });
       return await handleResponse(response);
+    },
+
+    // Server-sent event stream of new notifications. EventSource cannot send headers, so the
+    // stream is opened with a short-lived single-use ticket instead of the JWT
+    openStream: async () => {
+      const response = await fetch(`${API_BASE_URL}/notifications/stream-ticket`, {
+        method: 'POST',
+        headers: getAuthHeaders(),
+      });
+      const { data: ticket } = await handleResponse(response);
+      return new EventSource(`${API_BASE_URL}/notifications/stream?ticket=${encodeURIComponent(ticket)}`);
     }
   },
 
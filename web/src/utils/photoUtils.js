@@ -0,0 +1,26 @@
+// Utility functions for pawn item photos
+
+const parsePhotoList = (value) => {
+  if (!value) return [];
+  if (Array.isArray(value)) return value;
+  try {
+    const parsed = JSON.parse(value);
+    return Array.isArray(parsed) ? parsed : [value];
+  } catch {
+    return [value];
+  }
+};
+
+/**
+ * Resolves thumbnail or preview URLs, falling back to the original photo where the
+ * server has no variant (it sends null for inline data: photos)
+ * @param {string|Array} variants - The thumbnails or previews value from the API
+ * @param {string|Array} photos - The original photos value
+ * @returns {Array} - One URL per photo
+ */
+export const resolvePhotoVariants = (variants, photos) => {
+  const originals = parsePhotoList(photos);
+  const resolved = parsePhotoList(variants);
+  if (resolved.length === 0) return originals;
+  return resolved.map((url, index) => url || originals[index]).filter(Boolean);
+};